@@ -0,0 +1,56 @@
+package com.ecommerce.userservice.benchmark;
+
+import com.ecommerce.userservice.model.Role;
+import com.ecommerce.userservice.model.User;
+import com.ecommerce.userservice.repository.JwtKeyRepository;
+import com.ecommerce.userservice.service.impl.JwtKeyRingImpl;
+import com.ecommerce.userservice.service.impl.JwtServiceImpl;
+import com.ecommerce.userservice.service.impl.RoleRegistryImpl;
+import com.ecommerce.userservice.service.impl.VerifiedTokenCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.mockito.Mockito.mock;
+
+final class BenchmarkFixtures {
+
+    private BenchmarkFixtures() {
+    }
+
+    static JwtServiceImpl jwtService(boolean cacheEnabled) {
+        JwtKeyRingImpl keyRing = new JwtKeyRingImpl(mock(JwtKeyRepository.class));
+        ReflectionTestUtils.setField(keyRing, "secret", "0123456789abcdef0123456789abcdef");
+        ReflectionTestUtils.setField(keyRing, "keyId", "default");
+        ReflectionTestUtils.setField(keyRing, "refreshSecret", "");
+        ReflectionTestUtils.setField(keyRing, "refreshKeyId", "refresh");
+        keyRing.init();
+
+        VerifiedTokenCache cache = new VerifiedTokenCache();
+        ReflectionTestUtils.setField(cache, "enabled", cacheEnabled);
+        ReflectionTestUtils.setField(cache, "maxSize", 10_000L);
+        cache.init();
+
+        JwtServiceImpl jwtService = new JwtServiceImpl(keyRing, cache, new RoleRegistryImpl(null), new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(jwtService, "issuer", "user-service");
+        ReflectionTestUtils.setField(jwtService, "accessExpMin", 15L);
+        ReflectionTestUtils.setField(jwtService, "refreshExpDays", 7L);
+        jwtService.init();
+        return jwtService;
+    }
+
+    static User user() {
+        Role userRole = new Role();
+        userRole.setName("ROLE_USER");
+        Role adminRole = new Role();
+        adminRole.setName("ROLE_ADMIN");
+        return User.builder()
+                .id(1L)
+                .name("Bench")
+                .email("bench@example.com")
+                .password("hashed")
+                .roles(List.of(userRole, adminRole))
+                .build();
+    }
+}
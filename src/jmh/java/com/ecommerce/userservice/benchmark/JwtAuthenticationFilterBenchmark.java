@@ -0,0 +1,83 @@
+package com.ecommerce.userservice.benchmark;
+
+import com.ecommerce.userservice.config.JwtAuthenticationFilter;
+import com.ecommerce.userservice.model.User;
+import com.ecommerce.userservice.repository.RevokedTokenRepository;
+import com.ecommerce.userservice.service.impl.JpaUserDetailsService;
+import com.ecommerce.userservice.service.impl.JwtServiceImpl;
+import com.ecommerce.userservice.service.impl.TokenRevocationServiceImpl;
+import jakarta.servlet.FilterChain;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * Runs the filter against a mocked request; the user lookup is an in-memory stub so the numbers
+ * cover token handling and Authentication construction, not the database round-trip.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtAuthenticationFilterBenchmark {
+
+    @Param({"false", "true"})
+    public boolean statelessAuth;
+
+    @Param({"false", "true"})
+    public boolean cacheEnabled;
+
+    private JwtAuthenticationFilter filter;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+    private FilterChain chain;
+
+    @Setup
+    public void setup() {
+        JwtServiceImpl jwtService = BenchmarkFixtures.jwtService(cacheEnabled);
+        User user = BenchmarkFixtures.user();
+        JpaUserDetailsService userDetailsService = new JpaUserDetailsService(null, null, null) {
+            @Override
+            public UserDetails loadUserByUsername(String username) {
+                return user;
+            }
+        };
+        // empty denylist: every request pays exactly the Bloom filter probe
+        TokenRevocationServiceImpl revocations = new TokenRevocationServiceImpl(mock(RevokedTokenRepository.class), null, null);
+        ReflectionTestUtils.setField(revocations, "expectedEntries", 100_000L);
+        ReflectionTestUtils.setField(revocations, "falsePositiveRate", 0.001);
+        ReflectionTestUtils.setField(revocations, "confirmedMaxSize", 10_000L);
+        ReflectionTestUtils.setField(revocations, "negativeTtl", Duration.ofSeconds(5));
+        revocations.init();
+        filter = new JwtAuthenticationFilter(jwtService, userDetailsService, revocations, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(filter, "statelessAuth", statelessAuth);
+
+        request = new MockHttpServletRequest("GET", "/auth/me");
+        request.addHeader("Authorization", "Bearer " + jwtService.generateToken(user));
+        response = new MockHttpServletResponse();
+        chain = (req, res) -> { };
+    }
+
+    @Benchmark
+    public Authentication doFilter() throws Exception {
+        try {
+            filter.doFilter(request, response, chain);
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            request.removeAttribute(JwtAuthenticationFilter.class.getName() + ".FILTERED");
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.ecommerce.userservice.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Same load on both thread modes: {@code requests} concurrent calls that each block for {@code ioMillis}
+ * (standing in for JDBC/Kafka waits), run on a 200-thread platform pool (Tomcat's default max) or on
+ * one virtual thread per call. {@code pinned=true} does the wait inside {@code synchronized}, which pins
+ * the carrier on JDK 21 and shows what the pinning monitor is there to catch.
+ * Virtual threads are looked up reflectively so the default JDK 17 build compiles; run with JDK 21.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ThreadModeBenchmark {
+
+    @Param({"platform", "virtual"})
+    public String mode;
+
+    @Param({"false", "true"})
+    public boolean pinned;
+
+    @Param({"2000"})
+    public int requests;
+
+    @Param({"10"})
+    public int ioMillis;
+
+    private ExecutorService executor;
+
+    @Setup
+    public void setup() throws Exception {
+        if ("virtual".equals(mode)) {
+            executor = (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } else {
+            executor = Executors.newFixedThreadPool(200);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    public int handleRequests() throws Exception {
+        List<Future<Integer>> futures = new ArrayList<>(requests);
+        for (int i = 0; i < requests; i++) {
+            int n = i;
+            futures.add(executor.submit(() -> pinned ? blockPinned(n) : block(n)));
+        }
+        int sum = 0;
+        for (Future<Integer> future : futures) {
+            sum += future.get();
+        }
+        return sum;
+    }
+
+    private int block(int n) throws InterruptedException {
+        Thread.sleep(ioMillis);
+        return n;
+    }
+
+    private int blockPinned(int n) throws InterruptedException {
+        Object monitor = new Object();
+        synchronized (monitor) {
+            Thread.sleep(ioMillis);
+        }
+        return n;
+    }
+}
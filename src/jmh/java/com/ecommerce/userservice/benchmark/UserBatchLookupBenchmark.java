@@ -0,0 +1,125 @@
+package com.ecommerce.userservice.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.*;
+import java.util.Collections;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Looks up {@code lookups} users per operation the way a caller of {@code /auth/me}-style single reads
+ * does (one query per user) and the way {@code /internal/users/batch} does (one IN-list query per
+ * {@code chunkSize} keys). Defaults to in-memory H2, so {@code roundTripMicros} adds a simulated
+ * client/server round trip per query; pass {@code -p url=jdbc:mysql://... -p roundTripMicros=0} to
+ * measure against MySQL. The HTTP hop each single call would also cost is not included.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserBatchLookupBenchmark {
+
+    private static final int TABLE_ROWS = 10_000;
+
+    @Param({"jdbc:h2:mem:lookup-bench;MODE=MySQL;DB_CLOSE_DELAY=-1"})
+    public String url;
+
+    @Param({"sa"})
+    public String user;
+
+    @Param({""})
+    public String password;
+
+    @Param({"500"})
+    public int lookups;
+
+    @Param({"200"})
+    public int chunkSize;
+
+    @Param({"0", "200"})
+    public long roundTripMicros;
+
+    private Connection connection;
+    private long[] ids;
+
+    @Setup
+    public void setup() throws SQLException {
+        connection = DriverManager.getConnection(url, user, password);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS bench_users_lookup");
+            statement.execute("CREATE TABLE bench_users_lookup (id BIGINT PRIMARY KEY, "
+                    + "name VARCHAR(255), email VARCHAR(255) UNIQUE)");
+        }
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO bench_users_lookup (id, name, email) VALUES (?, ?, ?)")) {
+            for (int i = 1; i <= TABLE_ROWS; i++) {
+                insert.setLong(1, i);
+                insert.setString(2, "User " + i);
+                insert.setString(3, "user" + i + "@example.com");
+                insert.addBatch();
+            }
+            insert.executeBatch();
+        }
+        ids = ThreadLocalRandom.current().longs(lookups, 1, TABLE_ROWS + 1).toArray();
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Benchmark
+    public long singleLookups() throws SQLException {
+        long found = 0;
+        try (PreparedStatement select = connection.prepareStatement(
+                "SELECT id, name, email FROM bench_users_lookup WHERE id = ?")) {
+            for (long id : ids) {
+                select.setLong(1, id);
+                found += read(select);
+                roundTrip();
+            }
+        }
+        return found;
+    }
+
+    @Benchmark
+    public long batchLookup() throws SQLException {
+        long found = 0;
+        for (int from = 0; from < ids.length; from += chunkSize) {
+            int size = Math.min(chunkSize, ids.length - from);
+            try (PreparedStatement select = connection.prepareStatement(
+                    "SELECT id, name, email FROM bench_users_lookup WHERE id IN ("
+                            + String.join(", ", Collections.nCopies(size, "?")) + ")")) {
+                for (int i = 0; i < size; i++) {
+                    select.setLong(i + 1, ids[from + i]);
+                }
+                found += read(select);
+                roundTrip();
+            }
+        }
+        return found;
+    }
+
+    private static long read(PreparedStatement select) throws SQLException {
+        long rows = 0;
+        try (ResultSet rs = select.executeQuery()) {
+            while (rs.next()) {
+                rs.getLong(1);
+                rs.getString(2);
+                rs.getString(3);
+                rows++;
+            }
+        }
+        return rows;
+    }
+
+    private void roundTrip() {
+        if (roundTripMicros > 0) {
+            LockSupport.parkNanos(roundTripMicros * 1_000);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.ecommerce.userservice.benchmark;
+
+import com.ecommerce.userservice.model.Role;
+import com.ecommerce.userservice.model.User;
+import jakarta.persistence.*;
+import org.hibernate.SessionFactory;
+import org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy;
+import org.hibernate.cfg.Configuration;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.orm.jpa.hibernate.SpringImplicitNamingStrategy;
+import org.springframework.data.jpa.repository.support.SimpleJpaRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Inserts {@code rows} users per operation through {@link SimpleJpaRepository#saveAll} plus a flush, as the
+ * import does: once with the real {@link User} mapping (pooled sequence ids, JDBC-batched inserts) and once
+ * with an entity holding the same name, email and password columns on an IDENTITY id, which makes Hibernate
+ * execute each insert on its own.
+ * Defaults to in-memory H2, where a statement costs no network hop; pass
+ * {@code -p url=jdbc:mysql://... -p user=... -p password=...} to see the round trips the batching saves.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserInsertBenchmark {
+
+    private static final String PASSWORD_HASH = "$2a$10$abcdefghijklmnopqrstuuABCDEFGHIJKLMNOPQRSTUVWXYZ01234";
+
+    @Param({"jdbc:h2:mem:insert-bench;MODE=MySQL;DB_CLOSE_DELAY=-1"})
+    public String url;
+
+    @Param({"sa"})
+    public String user;
+
+    @Param({""})
+    public String password;
+
+    @Param({"500"})
+    public int rows;
+
+    private SessionFactory sessionFactory;
+    private long counter;
+
+    @Setup
+    public void setup() {
+        sessionFactory = new Configuration()
+                .addAnnotatedClass(User.class)
+                .addAnnotatedClass(Role.class)
+                .addAnnotatedClass(IdentityUser.class)
+                .setProperty("hibernate.connection.url", url)
+                .setProperty("hibernate.connection.username", user)
+                .setProperty("hibernate.connection.password", password)
+                // the naming Spring Boot configures, so the schema matches the migrations
+                .setProperty("hibernate.physical_naming_strategy", CamelCaseToUnderscoresNamingStrategy.class.getName())
+                .setProperty("hibernate.implicit_naming_strategy", SpringImplicitNamingStrategy.class.getName())
+                .setProperty("hibernate.hbm2ddl.auto", "create-drop")
+                .setProperty("hibernate.jdbc.batch_size", "50")
+                .setProperty("hibernate.order_inserts", "true")
+                .buildSessionFactory();
+    }
+
+    @TearDown
+    public void tearDown() {
+        sessionFactory.close();
+    }
+
+    @Benchmark
+    public int pooledSequence() {
+        List<User> users = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            long n = ++counter;
+            users.add(User.builder().name("User " + n).email("user" + n + "@example.com")
+                    .password(PASSWORD_HASH).roles(List.of()).build());
+        }
+        return saveAllAndFlush(User.class, users);
+    }
+
+    @Benchmark
+    public int identity() {
+        List<IdentityUser> users = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            long n = ++counter;
+            users.add(new IdentityUser("User " + n, "user" + n + "@example.com", PASSWORD_HASH));
+        }
+        return saveAllAndFlush(IdentityUser.class, users);
+    }
+
+    private <T> int saveAllAndFlush(Class<T> type, List<T> entities) {
+        try (EntityManager entityManager = sessionFactory.createEntityManager()) {
+            SimpleJpaRepository<T, Long> repository = new SimpleJpaRepository<>(type, entityManager);
+            entityManager.getTransaction().begin();
+            int saved = repository.saveAllAndFlush(entities).size();
+            entityManager.getTransaction().commit();
+            return saved;
+        }
+    }
+
+    /** The users columns on the id strategy {@link User} had before pooled sequences. */
+    @Entity
+    @Table(name = "bench_users_identity")
+    public static class IdentityUser {
+
+        @Id
+        @GeneratedValue(strategy = GenerationType.IDENTITY)
+        private Long id;
+
+        private String name;
+
+        @Column(unique = true)
+        private String email;
+
+        private String password;
+
+        protected IdentityUser() {
+        }
+
+        IdentityUser(String name, String email, String password) {
+            this.name = name;
+            this.email = email;
+            this.password = password;
+        }
+    }
+}
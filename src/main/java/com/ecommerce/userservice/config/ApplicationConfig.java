@@ -1,7 +1,9 @@
 package com.ecommerce.userservice.config;
 
-import com.ecommerce.userservice.service.impl.JpaUserDetailsService;
+import com.ecommerce.userservice.service.impl.CredentialsUserDetailsService;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -15,11 +17,18 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 @RequiredArgsConstructor
 public class ApplicationConfig {
 
-    private final JpaUserDetailsService userDetailsService;
+    // never the cached JpaUserDetailsService: a password check must see the current hash and deletion flag
+    private final CredentialsUserDetailsService userDetailsService;
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public BoundedPasswordEncoder passwordEncoder(@Value("${password.hashing.threads:0}") int threads,
+                                                  @Value("${password.hashing.queue-capacity:64}") int queueCapacity,
+                                                  @Value("${password.hashing.timeout-ms:5000}") long timeoutMillis,
+                                                  @Value("${password.hashing.retry-after-seconds:1}") long retryAfterSeconds,
+                                                  MeterRegistry meterRegistry) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(), poolSize, queueCapacity,
+                timeoutMillis, retryAfterSeconds, meterRegistry);
     }
 
     @Bean
@@ -1,26 +1,46 @@
 package com.ecommerce.userservice.config;
 
 import com.ecommerce.userservice.service.JwtService;
+import com.ecommerce.userservice.service.TokenRevocationService;
 import com.ecommerce.userservice.service.impl.JpaUserDetailsService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import lombok.RequiredArgsConstructor;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.concurrent.TimeUnit;
 
 @Component
-@RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
     private final JpaUserDetailsService userDetailsService;
+    private final TokenRevocationService tokenRevocationService;
+    private final Timer userFoundTimer;
+    private final Timer userMissingTimer;
+
+    @Value("${jwt.stateless-auth:false}") private boolean statelessAuth;
+
+    public JwtAuthenticationFilter(JwtService jwtService, JpaUserDetailsService userDetailsService,
+                                   TokenRevocationService tokenRevocationService, MeterRegistry meterRegistry) {
+        this.jwtService = jwtService;
+        this.userDetailsService = userDetailsService;
+        this.tokenRevocationService = tokenRevocationService;
+        this.userFoundTimer = Timer.builder("auth.user.lookup").tag("outcome", "found").register(meterRegistry);
+        this.userMissingTimer = Timer.builder("auth.user.lookup").tag("outcome", "not_found").register(meterRegistry);
+    }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -30,25 +50,43 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         String authHeader = request.getHeader("Authorization");
 
-        if(authHeader == null || !authHeader.startsWith("Bearer ")) {
+        if(authHeader == null || !authHeader.startsWith("Bearer ")
+                || SecurityContextHolder.getContext().getAuthentication() != null) {
             filterChain.doFilter(request, response);
             return;
         }
 
-
         String token = authHeader.substring(7);
-        String userName = jwtService.extractUserName(token);
-
-        if(userName != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            var userDetails = userDetailsService.loadUserByUsername(userName);
+        Claims claims;
+        try {
+            claims = jwtService.verifyAccessToken(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        // Bloom filter probes for the jti and the subject; the database is only consulted for a possible hit
+        if (tokenRevocationService.isRevoked(claims)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
 
-            if(jwtService.isTokenValid(token, userDetails)) {
-                var authToken =
-                        new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
-                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                SecurityContextHolder.getContext().setAuthentication(authToken);
+        UserDetails principal = statelessAuth ? jwtService.principalFrom(claims) : null;
+        if(principal == null && claims.getSubject() != null) {
+            long startedAt = System.nanoTime();
+            try {
+                principal = userDetailsService.loadUserByUsername(claims.getSubject());
+                userFoundTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+            } catch (UsernameNotFoundException e) {
+                userMissingTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+                principal = null;
             }
         }
+
+        if(principal != null) {
+            var authToken = new JwtAuthenticationToken(principal, claims);
+            authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+            SecurityContextHolder.getContext().setAuthentication(authToken);
+        }
         filterChain.doFilter(request, response);
     }
 
@@ -0,0 +1,36 @@
+package com.ecommerce.userservice.config;
+
+import io.jsonwebtoken.Claims;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.core.userdetails.UserDetails;
+
+/**
+ * Authentication built from a bearer token that has already been verified, carrying its claims
+ * so downstream code never has to parse the token again.
+ */
+public class JwtAuthenticationToken extends AbstractAuthenticationToken {
+
+    private final UserDetails principal;
+    private final Claims claims;
+
+    public JwtAuthenticationToken(UserDetails principal, Claims claims) {
+        super(principal.getAuthorities());
+        this.principal = principal;
+        this.claims = claims;
+        setAuthenticated(true);
+    }
+
+    @Override
+    public Object getCredentials() {
+        return null;
+    }
+
+    @Override
+    public UserDetails getPrincipal() {
+        return principal;
+    }
+
+    public Claims getClaims() {
+        return claims;
+    }
+}
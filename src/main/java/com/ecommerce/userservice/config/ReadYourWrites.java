@@ -0,0 +1,62 @@
+package com.ecommerce.userservice.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Remembers users whose row was just written so their reads go to the primary for
+ * {@code datasource.replicas.read-your-writes}, instead of to a replica that may not have caught up.
+ * A no-op unless replica routing is enabled.
+ * <p>
+ * The window lives in this instance's memory, so the guarantee holds only for reads served by the node that
+ * made the write. Other nodes learn of a write only through the {@code UserDetailsCache} invalidation
+ * broadcast, which is best-effort and arrives after the commit.
+ */
+@Component
+public class ReadYourWrites {
+
+    @Value("${datasource.replicas.enabled:false}") private boolean replicasEnabled;
+    @Value("${datasource.replicas.read-your-writes:PT5S}") private Duration window;
+    @Value("${datasource.replicas.read-your-writes-max-size:100000}") private long maxSize;
+
+    private Cache<String, Boolean> recentWrites;
+
+    @PostConstruct
+    public void init() {
+        if (replicasEnabled && !window.isZero()) {
+            recentWrites = Caffeine.newBuilder().expireAfterWrite(window).maximumSize(maxSize).build();
+        }
+    }
+
+    /** Starts the window for {@code key} once the current transaction commits. */
+    public void recordWrite(String key) {
+        if (recentWrites == null || key == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    recentWrites.put(key, Boolean.TRUE);
+                }
+            });
+        } else {
+            recentWrites.put(key, Boolean.TRUE);
+        }
+    }
+
+    public <T> T read(String key, Supplier<T> work) {
+        if (recentWrites != null && key != null && recentWrites.getIfPresent(key) != null) {
+            return ReplicaRoutingDataSource.onPrimary(work);
+        }
+        return work.get();
+    }
+}
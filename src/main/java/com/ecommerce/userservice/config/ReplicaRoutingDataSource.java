@@ -0,0 +1,197 @@
+package com.ecommerce.userservice.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Routes read-only transactions to the replicas (round-robin) and everything else to the primary.
+ * A replica that refuses a connection, fails {@link #checkReplicas()} or lags by more than {@code maxLag}
+ * is skipped until its next good check; with no usable replica, reads fall back to the primary.
+ * Must sit behind a {@link LazyConnectionDataSourceProxy} so the connection is fetched only after the
+ * transaction has published its read-only flag.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    public static final String PRIMARY = "primary";
+    private static final String LAG_COLUMN = "Seconds_Behind_Source";
+    private static final ThreadLocal<Boolean> FORCE_PRIMARY = new ThreadLocal<>();
+
+    public record ReplicaState(String name, boolean healthy, Long lagSeconds, String lastError) {}
+
+    private static final class Replica {
+        private final String name;
+        private final DataSource dataSource;
+        private volatile boolean healthy = true;
+        private volatile Long lagSeconds;
+        private volatile String lastError;
+
+        private Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+    }
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final Map<String, Replica> byName = new HashMap<>();
+    private final String lagQuery;
+    private final Duration maxLag;
+
+    private final AtomicInteger next = new AtomicInteger();
+    private final LongAdder replicaReads = new LongAdder();
+    private final LongAdder primaryFallbacks = new LongAdder();
+
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas, String lagQuery, Duration maxLag) {
+        this.primary = primary;
+        this.lagQuery = lagQuery == null ? "" : lagQuery.trim();
+        this.maxLag = maxLag;
+        List<Replica> list = new ArrayList<>(replicas.size());
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        replicas.forEach((name, dataSource) -> {
+            Replica replica = new Replica(name, dataSource);
+            list.add(replica);
+            byName.put(name, replica);
+            targets.put(name, dataSource);
+        });
+        this.replicas = List.copyOf(list);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    /** Runs {@code work} with every connection it opens taken from the primary, read-only or not. */
+    public static <T> T onPrimary(Supplier<T> work) {
+        Boolean outer = FORCE_PRIMARY.get();
+        FORCE_PRIMARY.set(Boolean.TRUE);
+        try {
+            return work.get();
+        } finally {
+            if (outer == null) {
+                FORCE_PRIMARY.remove();
+            }
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly() || FORCE_PRIMARY.get() != null) {
+            return PRIMARY;
+        }
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), Math.max(size, 1));
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.healthy) {
+                return replica.name;
+            }
+        }
+        primaryFallbacks.increment();
+        return PRIMARY;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Replica replica = byName.get((String) determineCurrentLookupKey());
+        if (replica == null) {
+            return primary.getConnection();
+        }
+        try {
+            Connection connection = replica.dataSource.getConnection();
+            replicaReads.increment();
+            return connection;
+        } catch (SQLException e) {
+            markDown(replica, e.getMessage());
+            primaryFallbacks.increment();
+            return primary.getConnection();
+        }
+    }
+
+    /** Probes every replica and, when a lag query is configured, takes it out of rotation past {@code maxLag}. */
+    @Scheduled(fixedDelayString = "${datasource.replicas.check-interval-ms:5000}")
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.dataSource.getConnection()) {
+                Long lag = lagQuery.isEmpty() ? null : lagSeconds(connection);
+                replica.lagSeconds = lag;
+                if (!lagQuery.isEmpty() && (lag == null || Duration.ofSeconds(lag).compareTo(maxLag) > 0)) {
+                    markDown(replica, lag == null ? "Replication not running" : "Lagging " + lag + "s");
+                } else {
+                    if (!replica.healthy) {
+                        log.info("Replica {} back in rotation", replica.name);
+                    }
+                    replica.lastError = null;
+                    replica.healthy = true;
+                }
+            } catch (SQLException e) {
+                markDown(replica, e.getMessage());
+            }
+        }
+    }
+
+    // SHOW REPLICA STATUS reports Seconds_Behind_Source; any other lag query returns seconds in its first column
+    private Long lagSeconds(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(lagQuery)) {
+            if (!rs.next()) {
+                return null;
+            }
+            int column;
+            try {
+                column = rs.findColumn(LAG_COLUMN);
+            } catch (SQLException e) {
+                column = 1;
+            }
+            long lag = rs.getLong(column);
+            return rs.wasNull() ? null : lag;
+        }
+    }
+
+    private void markDown(Replica replica, String reason) {
+        if (replica.healthy) {
+            log.warn("Replica {} out of rotation: {}", replica.name, reason);
+        }
+        replica.lastError = reason;
+        replica.healthy = false;
+    }
+
+    public List<ReplicaState> replicaStates() {
+        return replicas.stream()
+                .map(r -> new ReplicaState(r.name, r.healthy, r.lagSeconds, r.lastError))
+                .toList();
+    }
+
+    public long replicaReads() {
+        return replicaReads.sum();
+    }
+
+    public long primaryFallbacks() {
+        return primaryFallbacks.sum();
+    }
+
+    public void close() throws Exception {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+        if (primary instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.ecommerce.userservice.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.aot.AotDetector;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Logs how long the service took to become ready and, when {@code startup.report-file} is set,
+ * writes the numbers as JSON so CI or a deploy script can track them per build.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StartupTimeReporter implements ApplicationListener<ApplicationReadyEvent> {
+
+    private final ObjectMapper objectMapper;
+
+    @Value("${startup.report-file:}") private String reportFile;
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        long readyMillis = event.getTimeTaken() == null ? -1 : event.getTimeTaken().toMillis();
+        long jvmUptimeMillis = ManagementFactory.getRuntimeMXBean().getUptime();
+        boolean aot = AotDetector.useGeneratedArtifacts();
+        boolean cds = ManagementFactory.getRuntimeMXBean().getInputArguments().stream()
+                .anyMatch(arg -> arg.startsWith("-XX:SharedArchiveFile"));
+        log.info("Ready in {} ms (JVM uptime {} ms, aot={}, cds={})", readyMillis, jvmUptimeMillis, aot, cds);
+
+        if (reportFile.isBlank()) {
+            return;
+        }
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("timestamp", Instant.now().toString());
+        report.put("readyMillis", readyMillis);
+        report.put("jvmUptimeMillis", jvmUptimeMillis);
+        report.put("aot", aot);
+        report.put("cds", cds);
+        report.put("profiles", event.getApplicationContext().getEnvironment().getActiveProfiles());
+        try {
+            Files.write(Path.of(reportFile), objectMapper.writeValueAsBytes(report));
+        } catch (IOException e) {
+            log.warn("Could not write startup report to {}", reportFile, e);
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.ecommerce.userservice.controller;
+
+import com.ecommerce.userservice.config.BoundedPasswordEncoder;
+import com.ecommerce.userservice.config.ReplicaRoutingDataSource;
+import com.ecommerce.userservice.config.VirtualThreadPinningMonitor;
+import com.ecommerce.userservice.dto.Admin.CacheStatsResponse;
+import com.ecommerce.userservice.dto.Admin.HashingStatsResponse;
+import com.ecommerce.userservice.dto.Admin.JwtKeyRequest;
+import com.ecommerce.userservice.dto.Admin.LoginThrottleSettings;
+import com.ecommerce.userservice.dto.Admin.LoginThrottleStatsResponse;
+import com.ecommerce.userservice.dto.Admin.PinningStatsResponse;
+import com.ecommerce.userservice.dto.Admin.ReplicaStatsResponse;
+import com.ecommerce.userservice.dto.Admin.SweeperStatsResponse;
+import com.ecommerce.userservice.service.JwtKeyRing;
+import com.ecommerce.userservice.service.LoginThrottle;
+import com.ecommerce.userservice.service.impl.PasswordResetTokenSweeper;
+import com.ecommerce.userservice.service.impl.UserArchiver;
+import com.ecommerce.userservice.service.impl.VerifiedTokenCache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/admin")
+@PreAuthorize("hasRole('ADMIN')")
+@RequiredArgsConstructor
+public class AdminController {
+
+    private final JwtKeyRing keyRing;
+    private final VerifiedTokenCache tokenCache;
+    private final BoundedPasswordEncoder passwordEncoder;
+    private final LoginThrottle loginThrottle;
+    private final ObjectProvider<PasswordResetTokenSweeper> resetTokenSweeper;
+    private final ObjectProvider<UserArchiver> userArchiver;
+    private final ObjectProvider<VirtualThreadPinningMonitor> pinningMonitor;
+    private final ObjectProvider<ReplicaRoutingDataSource> replicaRouting;
+
+    @GetMapping("/jwt/keys")
+    public ResponseEntity<List<JwtKeyRing.KeyInfo>> keys() {
+        return ResponseEntity.ok(keyRing.keys());
+    }
+
+    @PostMapping("/jwt/keys")
+    public ResponseEntity<List<JwtKeyRing.KeyInfo>> addKey(@Valid @RequestBody JwtKeyRequest req) {
+        keyRing.addKey(req.kid(), req.secret(), req.purposes());
+        if (req.activate()) {
+            keyRing.activate(req.kid());
+        }
+        return ResponseEntity.ok(keyRing.keys());
+    }
+
+    @PostMapping("/jwt/keys/{kid}/activate")
+    public ResponseEntity<List<JwtKeyRing.KeyInfo>> activateKey(@PathVariable String kid) {
+        keyRing.activate(kid);
+        return ResponseEntity.ok(keyRing.keys());
+    }
+
+    @DeleteMapping("/jwt/keys/{kid}")
+    public ResponseEntity<Void> retireKey(@PathVariable String kid) {
+        keyRing.retireKey(kid);
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping("/jwt/cache")
+    public ResponseEntity<CacheStatsResponse> tokenCacheStats() {
+        CacheStats stats = tokenCache.stats();
+        return ResponseEntity.ok(new CacheStatsResponse(tokenCache.isEnabled(), tokenCache.size(),
+                stats.hitCount(), stats.missCount(), stats.hitRate(), stats.evictionCount()));
+    }
+
+    @GetMapping("/hashing")
+    public ResponseEntity<HashingStatsResponse> hashingStats() {
+        return ResponseEntity.ok(new HashingStatsResponse(passwordEncoder.poolSize(), passwordEncoder.activeCount(),
+                passwordEncoder.queueDepth(), passwordEncoder.queueCapacity(), passwordEncoder.completedCount(),
+                passwordEncoder.rejectedCount(), passwordEncoder.averageWaitMillis(), passwordEncoder.maxWaitMillis()));
+    }
+
+    @GetMapping("/login-throttle")
+    public ResponseEntity<LoginThrottleStatsResponse> loginThrottleStats() {
+        return ResponseEntity.ok(loginThrottle.stats());
+    }
+
+    @PutMapping("/login-throttle")
+    public ResponseEntity<LoginThrottleStatsResponse> updateLoginThrottle(@Valid @RequestBody LoginThrottleSettings req) {
+        loginThrottle.update(req);
+        return ResponseEntity.ok(loginThrottle.stats());
+    }
+
+    @GetMapping("/password-reset/sweeper")
+    public ResponseEntity<SweeperStatsResponse> resetTokenSweeperStats() {
+        PasswordResetTokenSweeper sweeper = resetTokenSweeper.getIfAvailable();
+        if (sweeper == null) {
+            return ResponseEntity.ok(new SweeperStatsResponse(false, 0, 0, 0, 0, 0));
+        }
+        return ResponseEntity.ok(new SweeperStatsResponse(true, sweeper.runCount(), sweeper.skippedCount(),
+                sweeper.purgedCount(), sweeper.lastRunPurged(), sweeper.lastRunMillis()));
+    }
+
+    // purged/lastRunPurged count users moved to users_archive
+    @GetMapping("/users/archiver")
+    public ResponseEntity<SweeperStatsResponse> userArchiverStats() {
+        UserArchiver archiver = userArchiver.getIfAvailable();
+        if (archiver == null) {
+            return ResponseEntity.ok(new SweeperStatsResponse(false, 0, 0, 0, 0, 0));
+        }
+        return ResponseEntity.ok(new SweeperStatsResponse(true, archiver.runCount(), archiver.skippedCount(),
+                archiver.archivedCount(), archiver.lastRunArchived(), archiver.lastRunMillis()));
+    }
+
+    @GetMapping("/threads/pinning")
+    public ResponseEntity<PinningStatsResponse> pinningStats() {
+        VirtualThreadPinningMonitor monitor = pinningMonitor.getIfAvailable();
+        if (monitor == null) {
+            return ResponseEntity.ok(new PinningStatsResponse(false, 0, 0, 0));
+        }
+        return ResponseEntity.ok(new PinningStatsResponse(true, monitor.pinnedCount(),
+                monitor.averagePinnedMillis(), monitor.maxPinnedMillis()));
+    }
+
+    @GetMapping("/datasource/replicas")
+    public ResponseEntity<ReplicaStatsResponse> replicaStats() {
+        ReplicaRoutingDataSource routing = replicaRouting.getIfAvailable();
+        if (routing == null) {
+            return ResponseEntity.ok(new ReplicaStatsResponse(false, 0, 0, List.of()));
+        }
+        return ResponseEntity.ok(new ReplicaStatsResponse(true, routing.replicaReads(), routing.primaryFallbacks(),
+                routing.replicaStates()));
+    }
+}
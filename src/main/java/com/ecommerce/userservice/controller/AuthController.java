@@ -1,16 +1,25 @@
 package com.ecommerce.userservice.controller;
 
 import com.ecommerce.userservice.dto.Auth.*;
+import com.ecommerce.userservice.config.JwtAuthenticationToken;
 import com.ecommerce.userservice.dto.User.RegisterRequest;
 import com.ecommerce.userservice.dto.User.UpdateProfileRequest;
 import com.ecommerce.userservice.dto.User.UserDTO;
 import com.ecommerce.userservice.service.JwtService;
+import com.ecommerce.userservice.service.LoginThrottle;
+import com.ecommerce.userservice.service.TokenRevocationService;
 import com.ecommerce.userservice.service.UserService;
+import com.ecommerce.userservice.exception.UnauthorizedException;
+import com.ecommerce.userservice.service.impl.CredentialsUserDetailsService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
@@ -22,6 +31,9 @@ public class AuthController {
     private final AuthenticationManager authenticationManager;
     private final JwtService jwtService;
     private final UserService userService;
+    private final CredentialsUserDetailsService userDetailsService;
+    private final LoginThrottle loginThrottle;
+    private final TokenRevocationService tokenRevocationService;
 
     @PostMapping("/register")
     public ResponseEntity<UserDTO> register(@RequestBody RegisterRequest req) {
@@ -29,12 +41,15 @@ public class AuthController {
     }
 
     @PostMapping("/login")
-    public ResponseEntity<AuthResponse> login(@RequestBody AuthRequest req) {
+    public ResponseEntity<AuthResponse> login(@RequestBody AuthRequest req, HttpServletRequest request) {
+        // before authenticate(): throttled attempts never reach BCrypt
+        loginThrottle.acquire(req.email(), request.getRemoteAddr());
         Authentication auth = authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(req.email(), req.password())
         );
 
         UserDetails principal = (UserDetails) auth.getPrincipal();
+        loginThrottle.onSuccess(req.email());
         String accessToken = jwtService.generateToken(principal);
         String refreshToken = jwtService.generateRefreshToken(principal);
 
@@ -42,26 +57,46 @@ public class AuthController {
     }
 
     @GetMapping("/me")
-    public ResponseEntity<UserDTO> me(@RequestHeader("Authorization") String bearer) {
-        String email = jwtService.extractUserName(bearer.substring(7));
-        return ResponseEntity.ok(userService.getProfileByEmail(email));
+    public ResponseEntity<UserDTO> me(@AuthenticationPrincipal UserDetails principal) {
+        return ResponseEntity.ok(userService.getProfileByEmail(principal.getUsername()));
     }
 
     @PostMapping("/refresh")
     public ResponseEntity<AuthResponse> refresh(@RequestBody RefreshRequest req) {
-        String username = jwtService.extractUserName(req.refreshToken());
-        userService.ensureUserExists(username);
-        jwtService.validateRefreshToken(req.refreshToken());
-        String newAccess = jwtService.generateToken(username);
+        Claims refresh = jwtService.verifyRefreshToken(req.refreshToken());
+        if (tokenRevocationService.isRevoked(refresh)) {
+            throw new UnauthorizedException("Refresh token revoked");
+        }
+        String username = refresh.getSubject();
+        // read on the primary: a cached principal would still issue tokens for a password-changed or deleted account
+        UserDetails user = userDetailsService.loadUserByUsername(username);
+        String newAccess = jwtService.generateToken(user);
         String newRefresh = jwtService.rotateRefreshToken(username);
         return ResponseEntity.ok(new AuthResponse(newAccess, newRefresh));
     }
 
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@RequestBody(required = false) LogoutRequest req, Authentication authentication) {
+        if (authentication instanceof JwtAuthenticationToken token) {
+            tokenRevocationService.revoke(token.getClaims());
+        }
+        if (req != null && req.refreshToken() != null) {
+            try {
+                Claims refresh = jwtService.verifyRefreshToken(req.refreshToken());
+                if (refresh.getSubject().equals(authentication.getName())) {
+                    tokenRevocationService.revoke(refresh);
+                }
+            } catch (JwtException e) {
+                // an invalid or expired refresh token cannot be used anyway
+            }
+        }
+        return ResponseEntity.noContent().build();
+    }
+
     @PostMapping("/change-password")
     public ResponseEntity<Void> changePassword(@RequestBody ChangePasswordRequest req,
-                                               @RequestHeader("Authorization") String bearer) {
-        String email = jwtService.extractUserName(bearer.substring(7));
-        userService.changePassword(email, req.oldPassword(), req.newPassword());
+                                               @AuthenticationPrincipal UserDetails principal) {
+        userService.changePassword(principal.getUsername(), req.oldPassword(), req.newPassword());
         return ResponseEntity.ok().build();
     }
 
@@ -77,10 +112,16 @@ public class AuthController {
         return ResponseEntity.ok().build();
     }
 
+    /** Deletes the caller's account; every token issued to it so far, this one included, is revoked. */
+    @DeleteMapping("/me")
+    public ResponseEntity<Void> deleteAccount(Authentication authentication) {
+        userService.deleteAccount(authentication.getName());
+        return ResponseEntity.noContent().build();
+    }
+
     @PatchMapping("/profile")
-    public ResponseEntity<UserDTO> updateProfile(@RequestHeader("Authorization") String bearer,
+    public ResponseEntity<UserDTO> updateProfile(@AuthenticationPrincipal UserDetails principal,
                                                  @RequestBody UpdateProfileRequest req) {
-        String email = jwtService.extractUserName(bearer.substring(7));
-        return ResponseEntity.ok(userService.updateProfile(email,req));
+        return ResponseEntity.ok(userService.updateProfile(principal.getUsername(),req));
     }
 }
\ No newline at end of file
@@ -0,0 +1,33 @@
+package com.ecommerce.userservice.controller;
+
+import com.ecommerce.userservice.dto.User.UserBatchRequest;
+import com.ecommerce.userservice.dto.User.UserDTO;
+import com.ecommerce.userservice.service.UserService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/internal/users")
+@PreAuthorize("hasAnyRole('SERVICE', 'ADMIN')")
+@RequiredArgsConstructor
+public class InternalUserController {
+
+    private final UserService userService;
+
+    /**
+     * Returns the users matching the given ids and emails; unknown ids and emails are skipped. The whole
+     * result is loaded before anything is written, so a failing chunk becomes an error response instead of
+     * a truncated array behind a 200. internal.users.batch.max-size bounds what is held.
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<List<UserDTO>> batch(@RequestBody UserBatchRequest req) {
+        return ResponseEntity.ok(userService.findUsers(req.ids(), req.emails()));
+    }
+}
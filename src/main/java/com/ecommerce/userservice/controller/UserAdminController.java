@@ -0,0 +1,137 @@
+package com.ecommerce.userservice.controller;
+
+import com.ecommerce.userservice.dto.Admin.ImportSummary;
+import com.ecommerce.userservice.dto.Admin.UserListItem;
+import com.ecommerce.userservice.dto.Admin.UserPageResponse;
+import com.ecommerce.userservice.exception.BadRequestException;
+import com.ecommerce.userservice.service.UserImportService;
+import com.ecommerce.userservice.service.UserListingService;
+import com.ecommerce.userservice.service.UserService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+@RestController
+@RequestMapping("/admin/users")
+@PreAuthorize("hasRole('ADMIN')")
+@RequiredArgsConstructor
+public class UserAdminController {
+
+    private static final String NDJSON = "application/x-ndjson";
+
+    private final UserImportService userImportService;
+    private final UserListingService userListingService;
+    private final UserService userService;
+    private final ObjectMapper objectMapper;
+
+    /** Keyset-paginated listing; pass the previous page's {@code nextCursor} to continue. */
+    @GetMapping
+    public UserPageResponse list(@RequestParam(required = false) String cursor,
+                                 @RequestParam(defaultValue = "50") int limit,
+                                 @RequestParam(defaultValue = "ID") UserListingService.Order order) {
+        return userListingService.list(cursor, limit, order);
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deleteUser(@PathVariable Long id) {
+        userService.deleteUser(id);
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Streams every user as NDJSON or CSV ({@code format=csv}) in id order while the rows are read;
+     * the buffered writer flushes to the client as it fills.
+     */
+    @GetMapping(value = "/export", produces = {NDJSON, "text/csv"})
+    public void exportUsers(@RequestParam(defaultValue = "ndjson") String format, HttpServletResponse response) throws IOException {
+        UserImportService.Format exportFormat = switch (format.toLowerCase(Locale.ROOT)) {
+            case "ndjson" -> UserImportService.Format.NDJSON;
+            case "csv" -> UserImportService.Format.CSV;
+            default -> throw new BadRequestException("format must be ndjson or csv");
+        };
+        boolean csv = exportFormat == UserImportService.Format.CSV;
+        response.setContentType(csv ? "text/csv" : NDJSON);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"users." + (csv ? "csv" : "ndjson") + "\"");
+        Writer out = new BufferedWriter(new OutputStreamWriter(response.getOutputStream(), StandardCharsets.UTF_8));
+
+        if (csv) {
+            out.write("id,name,email,created_at\n");
+            userListingService.export(user -> writeCsv(out, user));
+        } else {
+            userListingService.export(user -> writeLine(out, user));
+        }
+        out.flush();
+    }
+
+    /**
+     * Streams the request body through the importer and writes one NDJSON line per rejected record,
+     * followed by a final summary line.
+     */
+    @PostMapping(value = "/import", consumes = {NDJSON, "text/csv"}, produces = NDJSON)
+    public void importUsers(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        UserImportService.Format format = MediaType.parseMediaType(request.getContentType()).isCompatibleWith(MediaType.valueOf("text/csv"))
+                ? UserImportService.Format.CSV
+                : UserImportService.Format.NDJSON;
+        response.setContentType(NDJSON);
+        Writer out = new BufferedWriter(new OutputStreamWriter(response.getOutputStream(), StandardCharsets.UTF_8));
+
+        ImportSummary summary = userImportService.importUsers(request.getInputStream(), format, error -> writeLine(out, error));
+        writeLine(out, summary);
+        out.flush();
+    }
+
+    private static void writeCsv(Writer out, UserListItem user) {
+        try {
+            out.write(String.valueOf(user.id()));
+            out.write(',');
+            out.write(csvField(user.name()));
+            out.write(',');
+            out.write(csvField(user.email()));
+            out.write(',');
+            out.write(user.createdAt() == null ? "" : user.createdAt().toString());
+            out.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private void writeLine(Writer out, Object value) {
+        try {
+            out.write(objectMapper.writeValueAsString(value));
+            out.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
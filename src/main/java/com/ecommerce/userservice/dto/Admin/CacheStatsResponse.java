@@ -0,0 +1,4 @@
+package com.ecommerce.userservice.dto.Admin;
+
+public record CacheStatsResponse(boolean enabled, long size, long hits, long misses, double hitRate, long evictions) {
+}
@@ -0,0 +1,5 @@
+package com.ecommerce.userservice.dto.Admin;
+
+public record HashingStatsResponse(int poolSize, int active, int queueDepth, int queueCapacity,
+                                   long completed, long rejected, double avgWaitMillis, double maxWaitMillis) {
+}
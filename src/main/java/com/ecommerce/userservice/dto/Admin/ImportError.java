@@ -0,0 +1,4 @@
+package com.ecommerce.userservice.dto.Admin;
+
+public record ImportError(long line, String email, String error) {
+}
@@ -0,0 +1,7 @@
+package com.ecommerce.userservice.dto.Admin;
+
+import com.fasterxml.jackson.annotation.JsonAlias;
+
+public record ImportRecord(String name, String email, String password,
+                           @JsonAlias("password_hash") String passwordHash) {
+}
@@ -0,0 +1,4 @@
+package com.ecommerce.userservice.dto.Admin;
+
+public record ImportSummary(long processed, long imported, long failed) {
+}
@@ -0,0 +1,13 @@
+package com.ecommerce.userservice.dto.Admin;
+
+import com.ecommerce.userservice.service.JwtKeyRing;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.Set;
+
+public record JwtKeyRequest(@NotBlank String kid,
+                            @NotBlank String secret,
+                            @NotEmpty Set<JwtKeyRing.Purpose> purposes,
+                            boolean activate) {
+}
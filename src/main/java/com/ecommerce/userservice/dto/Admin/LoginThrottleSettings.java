@@ -0,0 +1,12 @@
+package com.ecommerce.userservice.dto.Admin;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.Duration;
+
+public record LoginThrottleSettings(boolean enabled,
+                                    @Min(1) int maxPerEmail,
+                                    @Min(1) int maxPerIp,
+                                    @NotNull Duration window) {
+}
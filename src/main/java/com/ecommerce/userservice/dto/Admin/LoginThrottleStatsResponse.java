@@ -0,0 +1,9 @@
+package com.ecommerce.userservice.dto.Admin;
+
+public record LoginThrottleStatsResponse(
+        LoginThrottleSettings settings,
+        long trackedEmails,
+        long trackedIps,
+        long rejectedByEmail,
+        long rejectedByIp
+) {}
@@ -0,0 +1,8 @@
+package com.ecommerce.userservice.dto.Admin;
+
+public record PinningStatsResponse(
+        boolean virtualThreads,
+        long pinnedEvents,
+        double avgPinnedMillis,
+        double maxPinnedMillis
+) {}
@@ -0,0 +1,12 @@
+package com.ecommerce.userservice.dto.Admin;
+
+import com.ecommerce.userservice.config.ReplicaRoutingDataSource;
+
+import java.util.List;
+
+public record ReplicaStatsResponse(
+        boolean enabled,
+        long replicaReads,
+        long primaryFallbacks,
+        List<ReplicaRoutingDataSource.ReplicaState> replicas
+) {}
@@ -0,0 +1,10 @@
+package com.ecommerce.userservice.dto.Admin;
+
+public record SweeperStatsResponse(
+        boolean enabled,
+        long runs,
+        long skipped,
+        long purged,
+        long lastRunPurged,
+        long lastRunMillis
+) {}
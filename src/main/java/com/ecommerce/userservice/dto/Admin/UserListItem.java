@@ -0,0 +1,6 @@
+package com.ecommerce.userservice.dto.Admin;
+
+import java.time.Instant;
+
+public record UserListItem(Long id, String name, String email, Instant createdAt) {
+}
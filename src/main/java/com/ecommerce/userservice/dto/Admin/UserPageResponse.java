@@ -0,0 +1,7 @@
+package com.ecommerce.userservice.dto.Admin;
+
+import java.util.List;
+
+/** {@code nextCursor} is null on the last page. */
+public record UserPageResponse(List<UserListItem> users, String nextCursor) {
+}
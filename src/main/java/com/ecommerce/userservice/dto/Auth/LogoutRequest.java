@@ -0,0 +1,4 @@
+package com.ecommerce.userservice.dto.Auth;
+
+public record LogoutRequest(String refreshToken) {
+}
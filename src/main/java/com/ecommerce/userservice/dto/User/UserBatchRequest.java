@@ -0,0 +1,6 @@
+package com.ecommerce.userservice.dto.User;
+
+import java.util.List;
+
+public record UserBatchRequest(List<Long> ids, List<String> emails) {
+}
@@ -0,0 +1,6 @@
+package com.ecommerce.userservice.event;
+
+import java.time.Instant;
+
+public record EmailEvent(String from, String to, String subject, String body, Instant occurredAt) {
+}
@@ -0,0 +1,162 @@
+package com.ecommerce.userservice.event;
+
+import com.ecommerce.userservice.dto.SendEmailDto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+/**
+ * Encodes {@link EmailEvent}s either as the legacy {@link SendEmailDto} JSON or as a compact tagged
+ * binary layout: {@code magic, version, (tag, varint length, bytes)*}. Readers skip tags they do not
+ * know and leave missing fields null, so fields can be added without bumping {@link #VERSION};
+ * the version only changes if the framing itself does.
+ */
+@Component
+@RequiredArgsConstructor
+public class EmailEventCodec {
+
+    public static final String CONTENT_TYPE_JSON = "application/json";
+    public static final String CONTENT_TYPE_BINARY = "application/vnd.ecommerce.email-event.v1";
+
+    static final byte MAGIC = (byte) 0xEE;
+    static final byte VERSION = 1;
+
+    private static final int TAG_FROM = 1;
+    private static final int TAG_TO = 2;
+    private static final int TAG_SUBJECT = 3;
+    private static final int TAG_BODY = 4;
+    private static final int TAG_OCCURRED_AT = 5;
+
+    private final ObjectMapper objectMapper;
+
+    @Value("${email.events.format:json}") private String format;
+
+    public EncodedEvent encode(EmailEvent event) {
+        if ("binary".equalsIgnoreCase(format)) {
+            return new EncodedEvent(CONTENT_TYPE_BINARY, toBinary(event));
+        }
+        return new EncodedEvent(CONTENT_TYPE_JSON, toJson(event));
+    }
+
+    public EmailEvent decode(byte[] payload) {
+        if (payload.length >= 2 && payload[0] == MAGIC) {
+            return fromBinary(payload);
+        }
+        try {
+            SendEmailDto dto = objectMapper.readValue(payload, SendEmailDto.class);
+            return new EmailEvent(dto.getFrom(), dto.getTo(), dto.getSubject(), dto.getBody(), null);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Unreadable email event", e);
+        }
+    }
+
+    private byte[] toJson(EmailEvent event) {
+        SendEmailDto dto = new SendEmailDto();
+        dto.setFrom(event.from());
+        dto.setTo(event.to());
+        dto.setSubject(event.subject());
+        dto.setBody(event.body());
+        try {
+            return objectMapper.writeValueAsBytes(dto);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static byte[] toBinary(EmailEvent event) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(64 + length(event.body()));
+        out.write(MAGIC);
+        out.write(VERSION);
+        writeString(out, TAG_FROM, event.from());
+        writeString(out, TAG_TO, event.to());
+        writeString(out, TAG_SUBJECT, event.subject());
+        writeString(out, TAG_BODY, event.body());
+        if (event.occurredAt() != null) {
+            out.write(TAG_OCCURRED_AT);
+            writeVarint(out, Long.BYTES);
+            out.writeBytes(ByteBuffer.allocate(Long.BYTES).putLong(event.occurredAt().toEpochMilli()).array());
+        }
+        return out.toByteArray();
+    }
+
+    static EmailEvent fromBinary(byte[] payload) {
+        ByteBuffer in = ByteBuffer.wrap(payload);
+        if (in.get() != MAGIC || in.get() > VERSION) {
+            throw new IllegalArgumentException("Unsupported email event encoding");
+        }
+        String from = null, to = null, subject = null, body = null;
+        Instant occurredAt = null;
+        try {
+            while (in.hasRemaining()) {
+                int tag = in.get() & 0xFF;
+                int length = readVarint(in);
+                if (length < 0 || length > in.remaining()) {
+                    throw new IllegalArgumentException("Truncated email event");
+                }
+                int next = in.position() + length;
+                switch (tag) {
+                    case TAG_FROM -> from = readString(in, length);
+                    case TAG_TO -> to = readString(in, length);
+                    case TAG_SUBJECT -> subject = readString(in, length);
+                    case TAG_BODY -> body = readString(in, length);
+                    // a value of another width comes from a newer writer; leave the field unset like an unknown tag
+                    case TAG_OCCURRED_AT -> occurredAt = length == Long.BYTES ? Instant.ofEpochMilli(in.getLong()) : null;
+                    default -> { }
+                }
+                in.position(next);
+            }
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Truncated email event", e);
+        }
+        return new EmailEvent(from, to, subject, body, occurredAt);
+    }
+
+    private static void writeString(ByteArrayOutputStream out, int tag, String value) {
+        if (value == null) {
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.write(tag);
+        writeVarint(out, bytes.length);
+        out.writeBytes(bytes);
+    }
+
+    private static String readString(ByteBuffer in, int length) {
+        String value = new String(in.array(), in.position(), length, StandardCharsets.UTF_8);
+        in.position(in.position() + length);
+        return value;
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    private static int readVarint(ByteBuffer in) {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            byte b = in.get();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint");
+    }
+
+    private static int length(String value) {
+        return value == null ? 0 : value.length();
+    }
+}
@@ -0,0 +1,4 @@
+package com.ecommerce.userservice.event;
+
+public record EncodedEvent(String contentType, byte[] payload) {
+}
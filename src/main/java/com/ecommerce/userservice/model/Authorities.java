@@ -0,0 +1,24 @@
+package com.ecommerce.userservice.model;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * One immutable {@link SimpleGrantedAuthority} per role name, shared by every {@link User}, token
+ * principal and the role registry. Names come from the roles table or from our own signed tokens,
+ * so the set stays small.
+ */
+public final class Authorities {
+
+    private static final Map<String, GrantedAuthority> BY_NAME = new ConcurrentHashMap<>();
+
+    private Authorities() {
+    }
+
+    public static GrantedAuthority of(String name) {
+        return BY_NAME.computeIfAbsent(name, SimpleGrantedAuthority::new);
+    }
+}
@@ -0,0 +1,39 @@
+package com.ecommerce.userservice.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * A key ring change made through the admin API. {@code secret} is null for keys that come from
+ * configuration; their row only carries activation or retirement.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "jwt_key")
+public class JwtKey {
+
+    @Id
+    @Column(length = 64)
+    private String kid;
+
+    @Column(length = 512)
+    private String secret;
+
+    /** Comma-separated {@code JwtKeyRing.Purpose} names. */
+    @Column(nullable = false, length = 32)
+    private String purposes;
+
+    @Column(name = "activated_at")
+    private Instant activatedAt;
+
+    @Column(name = "retired_at")
+    private Instant retiredAt;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+}
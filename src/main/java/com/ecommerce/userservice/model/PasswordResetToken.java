@@ -9,11 +9,11 @@ import java.time.Instant;
 @AllArgsConstructor
 @Entity
 @NoArgsConstructor
-
+@Table(indexes = @Index(name = "idx_password_reset_token_expires_at", columnList = "expires_at"))
 public class PasswordResetToken {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE)
     private Long id;
 
     @Column(unique=true, nullable=false)
@@ -3,14 +3,15 @@ package com.ecommerce.userservice.model;
 import jakarta.persistence.*;
 import lombok.*;
 import lombok.experimental.SuperBuilder;
+import org.hibernate.annotations.SQLRestriction;
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
 import java.io.Serializable;
+import java.time.Instant;
 import java.util.Collection;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.concurrent.atomic.AtomicReference;
 
 @Entity
 @Getter
@@ -18,21 +19,42 @@ import java.util.stream.Collectors;
 @NoArgsConstructor
 @AllArgsConstructor
 @SuperBuilder
-@Table(name = "users")
+@Table(name = "users", uniqueConstraints = @UniqueConstraint(name = User.EMAIL_UNIQUE_CONSTRAINT, columnNames = "email"),
+        indexes = {
+                @Index(name = "idx_users_deleted_created_at_id", columnList = "deleted, created_at, id"),
+                @Index(name = "idx_users_deleted_deleted_at", columnList = "deleted, deleted_at")})
+// deleted accounts are invisible to every entity load and JPQL query or update; UserArchiver reads them with native SQL
+@SQLRestriction("deleted = false")
 
 public class User extends Base implements UserDetails {
 
+    public static final String EMAIL_UNIQUE_CONSTRAINT = "uk_users_email";
+
     private String name;
     private String email;
     private String password;
+    private Instant deletedAt;
 
     @ManyToMany
     private List<Role> roles;
 
+    // the shared per-name authorities, listed once per instance and reset when roles are replaced
+    @Transient
+    private final transient AtomicReference<List<GrantedAuthority>> authorities = new AtomicReference<>();
+
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
-        return roles.stream()
-                .map(role -> new SimpleGrantedAuthority(role.getName())).toList();
+        List<GrantedAuthority> cached = authorities.get();
+        if (cached == null) {
+            cached = roles.stream().map(role -> Authorities.of(role.getName())).toList();
+            authorities.set(cached);
+        }
+        return cached;
+    }
+
+    public void setRoles(List<Role> roles) {
+        this.roles = roles;
+        authorities.set(null);
     }
 
     @Override
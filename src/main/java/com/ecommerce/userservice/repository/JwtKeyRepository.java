@@ -0,0 +1,7 @@
+package com.ecommerce.userservice.repository;
+
+import com.ecommerce.userservice.model.JwtKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface JwtKeyRepository extends JpaRepository<JwtKey, String> {
+}
@@ -0,0 +1,34 @@
+package com.ecommerce.userservice.repository;
+
+import com.ecommerce.userservice.model.OutboxEvent;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // SKIP LOCKED lets several relay instances claim from the outbox at once without taking the same row
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("select e from OutboxEvent e where e.sentAt is null and (e.claimedUntil is null or e.claimedUntil < :now) "
+            + "order by e.id")
+    List<OutboxEvent> findClaimableForUpdate(@Param("now") Instant now, Limit limit);
+
+    @Modifying
+    @Query("update OutboxEvent e set e.claimedUntil = :until where e.id in :ids")
+    int claim(@Param("ids") Collection<Long> ids, @Param("until") Instant until);
+
+    @Modifying
+    @Query("update OutboxEvent e set e.sentAt = :sentAt, e.claimedUntil = null where e.id in :ids")
+    int markSent(@Param("ids") Collection<Long> ids, @Param("sentAt") Instant sentAt);
+
+    @Modifying
+    @Query(value = "DELETE FROM outbox_event WHERE sent_at < :before LIMIT :limit", nativeQuery = true)
+    int deleteSentBefore(@Param("before") Instant before, @Param("limit") int limit);
+}
@@ -2,10 +2,20 @@ package com.ecommerce.userservice.repository;
 
 import com.ecommerce.userservice.model.PasswordResetToken;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
 import java.util.Optional;
 
 public interface PasswordResetTokenRepository extends JpaRepository<PasswordResetToken, Long> {
     Optional<PasswordResetToken> findByToken(String token);
+
+    // walks idx_password_reset_token_expires_at; LIMIT keeps each delete's locks and undo small
+    @Modifying
+    @Query(value = "DELETE FROM password_reset_token WHERE expires_at < :now ORDER BY expires_at LIMIT :limit",
+            nativeQuery = true)
+    int deleteExpiredBefore(@Param("now") Instant now, @Param("limit") int limit);
 }
@@ -0,0 +1,45 @@
+package com.ecommerce.userservice.repository;
+
+import com.ecommerce.userservice.model.RevokedToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, String> {
+
+    // jti is assigned, so save() would select first; a repeated logout is simply ignored
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO revoked_token (jti, expires_at, revoked_at) VALUES (:jti, :expiresAt, :revokedAt)",
+            nativeQuery = true)
+    int insertIfAbsent(@Param("jti") String jti, @Param("expiresAt") Instant expiresAt,
+                       @Param("revokedAt") Instant revokedAt);
+
+    // a later deletion of a re-registered account moves the subject's cutoff forward
+    @Modifying
+    @Query(value = "INSERT INTO revoked_token (jti, expires_at, revoked_at) VALUES (:jti, :expiresAt, :revokedAt) "
+            + "ON DUPLICATE KEY UPDATE expires_at = VALUES(expires_at), revoked_at = VALUES(revoked_at)",
+            nativeQuery = true)
+    int upsert(@Param("jti") String jti, @Param("expiresAt") Instant expiresAt, @Param("revokedAt") Instant revokedAt);
+
+    @Query("select t.revokedAt from RevokedToken t where t.jti = :jti and t.expiresAt > :now")
+    Optional<Instant> findActiveRevokedAt(@Param("jti") String jti, @Param("now") Instant now);
+
+    @Query("select t.expiresAt from RevokedToken t where t.jti = :jti and t.expiresAt > :now")
+    Optional<Instant> findActiveExpiresAt(@Param("jti") String jti, @Param("now") Instant now);
+
+    @Query("select t.jti from RevokedToken t where t.expiresAt > :now")
+    List<String> findActiveJtis(@Param("now") Instant now);
+
+    @Query("select t.jti from RevokedToken t where t.revokedAt >= :since and t.expiresAt > :now")
+    List<String> findJtisRevokedSince(@Param("since") Instant since, @Param("now") Instant now);
+
+    @Modifying
+    @Query(value = "DELETE FROM revoked_token WHERE expires_at < :now ORDER BY expires_at LIMIT :limit",
+            nativeQuery = true)
+    int deleteExpiredBefore(@Param("now") Instant now, @Param("limit") int limit);
+}
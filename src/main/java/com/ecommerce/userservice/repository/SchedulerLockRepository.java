@@ -0,0 +1,28 @@
+package com.ecommerce.userservice.repository;
+
+import com.ecommerce.userservice.model.SchedulerLock;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+
+public interface SchedulerLockRepository extends JpaRepository<SchedulerLock, String> {
+
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO scheduler_lock (name, locked_until, locked_by) VALUES (:name, :now, '')",
+            nativeQuery = true)
+    int insertIfAbsent(@Param("name") String name, @Param("now") Instant now);
+
+    // the row update is atomic, so exactly one replica sees 1 for an expired lease
+    @Modifying
+    @Query("update SchedulerLock l set l.lockedUntil = :until, l.lockedBy = :owner "
+            + "where l.name = :name and l.lockedUntil <= :now")
+    int acquire(@Param("name") String name, @Param("owner") String owner,
+                @Param("now") Instant now, @Param("until") Instant until);
+
+    @Modifying
+    @Query("update SchedulerLock l set l.lockedUntil = :now where l.name = :name and l.lockedBy = :owner")
+    int release(@Param("name") String name, @Param("owner") String owner, @Param("now") Instant now);
+}
@@ -1,13 +1,104 @@
 package com.ecommerce.userservice.repository;
 
+import com.ecommerce.userservice.dto.Admin.UserListItem;
+import com.ecommerce.userservice.dto.User.UserDTO;
 import com.ecommerce.userservice.model.User;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
+// declared query methods get no transaction of their own; readOnly lets ReplicaRoutingDataSource send
+// the ones called outside a service transaction (user lookup per request, login, batch lookup) to a replica
 public interface UserRepository extends JpaRepository<User, Long> {
+    @Transactional(readOnly = true)
     @EntityGraph(attributePaths = "roles")
     Optional<User> findByEmail(String email);
+    @Transactional(readOnly = true)
     boolean existsByEmail(String email);
+
+    // native so deleted accounts count too: their email stays reserved until they are archived
+    @Transactional(readOnly = true)
+    @Query(value = "select email from users where email in :emails", nativeQuery = true)
+    Set<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    // projections: three columns, no roles join, nothing added to the persistence context
+    @Transactional(readOnly = true)
+    @Query("select new com.ecommerce.userservice.dto.User.UserDTO(u.id, u.name, u.email) from User u where u.email = :email")
+    Optional<UserDTO> findDtoByEmail(@Param("email") String email);
+
+    @Transactional(readOnly = true)
+    @Query("select u.password from User u where u.email = :email")
+    Optional<String> findPasswordByEmail(@Param("email") String email);
+
+    // bulk updates bypass dirty checking and @PreUpdate, so updatedAt is set explicitly
+    @Modifying
+    @Query("update User u set u.name = :name, u.updatedAt = :now where u.email = :email")
+    int updateName(@Param("email") String email, @Param("name") String name, @Param("now") Instant now);
+
+    @Modifying
+    @Query("update User u set u.password = :password, u.updatedAt = :now where u.email = :email")
+    int updatePassword(@Param("email") String email, @Param("password") String password, @Param("now") Instant now);
+
+    @Modifying
+    @Query("update User u set u.deleted = true, u.deletedAt = :now, u.updatedAt = :now "
+            + "where u.email = :email")
+    int softDeleteByEmail(@Param("email") String email, @Param("now") Instant now);
+
+    @Transactional(readOnly = true)
+    @Query("select u.email from User u where u.id = :id")
+    Optional<String> findEmailById(@Param("id") Long id);
+
+    @Transactional(readOnly = true)
+    @Query("select new com.ecommerce.userservice.dto.User.UserDTO(u.id, u.name, u.email) from User u where u.id in :ids")
+    List<UserDTO> findDtosByIds(@Param("ids") Collection<Long> ids);
+
+    @Transactional(readOnly = true)
+    @Query("select new com.ecommerce.userservice.dto.User.UserDTO(u.id, u.name, u.email) from User u where u.email in :emails")
+    List<UserDTO> findDtosByEmails(@Param("emails") Collection<String> emails);
+
+    // keyset pages: each seeks past the last row of the previous page, so deep pages cost the same as the first
+    @Transactional(readOnly = true)
+    @Query("select new com.ecommerce.userservice.dto.Admin.UserListItem(u.id, u.name, u.email, u.createdAt) from User u "
+            + "where u.id > :afterId order by u.id")
+    List<UserListItem> findPageAfterId(@Param("afterId") long afterId, Limit limit);
+
+    @Transactional(readOnly = true)
+    @Query("select new com.ecommerce.userservice.dto.Admin.UserListItem(u.id, u.name, u.email, u.createdAt) from User u "
+            + "where u.createdAt > :createdAt or (u.createdAt = :createdAt and u.id > :afterId) order by u.createdAt, u.id")
+    List<UserListItem> findPageAfterCreatedAt(@Param("createdAt") Instant createdAt, @Param("afterId") long afterId,
+                                              Limit limit);
+
+    // archival of accounts deleted before the cutoff; walks idx_users_deleted_deleted_at, LIMIT keeps each chunk small
+    @Query(value = "SELECT id FROM users WHERE deleted = TRUE AND deleted_at < :cutoff ORDER BY deleted_at LIMIT :limit",
+            nativeQuery = true)
+    List<Long> findDeletedBefore(@Param("cutoff") Instant cutoff, @Param("limit") int limit);
+
+    @Modifying
+    @Query(value = "INSERT INTO users_archive (id, name, email, password, created_at, updated_at, deleted_at, archived_at) "
+            + "SELECT id, name, email, password, created_at, updated_at, deleted_at, :now FROM users WHERE id IN :ids",
+            nativeQuery = true)
+    int copyToArchive(@Param("ids") Collection<Long> ids, @Param("now") Instant now);
+
+    @Modifying
+    @Query(value = "INSERT INTO users_roles_archive (user_id, roles_id) SELECT user_id, roles_id FROM users_roles WHERE user_id IN :ids",
+            nativeQuery = true)
+    int copyRoleLinksToArchive(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query(value = "DELETE FROM users_roles WHERE user_id IN :ids", nativeQuery = true)
+    int deleteRoleLinks(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query(value = "DELETE FROM users WHERE id IN :ids AND deleted = TRUE", nativeQuery = true)
+    int deleteArchived(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,26 @@
+package com.ecommerce.userservice.service;
+
+import javax.crypto.SecretKey;
+import java.util.List;
+import java.util.Set;
+
+public interface JwtKeyRing {
+
+    enum Purpose { ACCESS, REFRESH }
+
+    record SigningKey(String kid, SecretKey key) {}
+
+    record KeyInfo(String kid, Set<Purpose> purposes, Set<Purpose> activeFor) {}
+
+    SigningKey signingKey(Purpose purpose);
+
+    SecretKey verificationKey(Purpose purpose, String kid);
+
+    void addKey(String kid, String secret, Set<Purpose> purposes);
+
+    void activate(String kid);
+
+    void retireKey(String kid);
+
+    List<KeyInfo> keys();
+}
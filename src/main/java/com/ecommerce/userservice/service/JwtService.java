@@ -1,5 +1,7 @@
 package com.ecommerce.userservice.service;
 
+import com.ecommerce.userservice.model.AuthenticatedUser;
+import io.jsonwebtoken.Claims;
 import org.springframework.security.core.userdetails.UserDetails;
 
 public interface JwtService {
@@ -13,7 +15,13 @@ public interface JwtService {
 
     String extractUserName(String token);
 
-    void validateRefreshToken(String token);
+    Claims verifyAccessToken(String token);
+
+    AuthenticatedUser principalFrom(Claims claims);
+
+    String validateRefreshToken(String token);
+
+    Claims verifyRefreshToken(String token);
 
     boolean isTokenValid(String token, UserDetails principal);
 }
@@ -0,0 +1,24 @@
+package com.ecommerce.userservice.service;
+
+import com.ecommerce.userservice.dto.Admin.LoginThrottleSettings;
+import com.ecommerce.userservice.dto.Admin.LoginThrottleStatsResponse;
+
+/**
+ * Sliding-window limit on login attempts per email and per client IP, checked before the password
+ * is hashed so bursts are turned away without BCrypt work.
+ */
+public interface LoginThrottle {
+
+    /** Counts an attempt, or throws {@code TooManyRequestsException} if either key is over its limit. */
+    void acquire(String email, String clientIp);
+
+    /** Clears the email's window so a user who mistyped is not held back after signing in. */
+    void onSuccess(String email);
+
+    LoginThrottleSettings settings();
+
+    /** Applies new limits immediately; a changed window also resets all counters. */
+    void update(LoginThrottleSettings settings);
+
+    LoginThrottleStatsResponse stats();
+}
@@ -0,0 +1,23 @@
+package com.ecommerce.userservice.service;
+
+import com.ecommerce.userservice.model.Role;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.List;
+
+/**
+ * In-memory view of the {@code roles} table. Authorities are the immutable per-name singletons from
+ * {@link com.ecommerce.userservice.model.Authorities}, so callers never build them per request.
+ */
+public interface RoleRegistry {
+
+    /** Role by name; reloads once on a miss before failing with {@code BadRequestException}. */
+    Role require(String name);
+
+    GrantedAuthority authority(String name);
+
+    /** Shared immutable authority list for the given role names, e.g. a token's {@code roles} claim. */
+    List<GrantedAuthority> authorities(List<?> names);
+
+    void refresh();
+}
@@ -0,0 +1,11 @@
+package com.ecommerce.userservice.service;
+
+import java.time.Duration;
+
+public interface SchedulerLockService {
+
+    /** Takes the named lease for this instance unless another instance holds an unexpired one. */
+    boolean tryLock(String name, Duration leaseFor);
+
+    void unlock(String name);
+}
@@ -0,0 +1,24 @@
+package com.ecommerce.userservice.service;
+
+import io.jsonwebtoken.Claims;
+
+import java.time.Instant;
+
+/**
+ * Denylist of revoked token ids ({@code jti}), kept until each token's own expiry. Lookups are
+ * answered from an in-memory Bloom filter and only reach the database when it reports a possible hit.
+ * A subject can also be cut off as a whole, which revokes every token issued to it before the cutoff.
+ */
+public interface TokenRevocationService {
+
+    /** Revokes the token the claims came from; tokens without {@code jti} or {@code exp} are ignored. */
+    void revoke(Claims claims);
+
+    /** Revokes every token issued to the subject before {@code at}, once the surrounding transaction commits. */
+    void revokeAllFor(String subject, Instant at);
+
+    boolean isRevoked(String jti);
+
+    /** Whether the token's {@code jti} is revoked or the token was issued before its subject's cutoff. */
+    boolean isRevoked(Claims claims);
+}
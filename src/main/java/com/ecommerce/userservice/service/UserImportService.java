@@ -0,0 +1,15 @@
+package com.ecommerce.userservice.service;
+
+import com.ecommerce.userservice.dto.Admin.ImportError;
+import com.ecommerce.userservice.dto.Admin.ImportSummary;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.function.Consumer;
+
+public interface UserImportService {
+
+    enum Format { NDJSON, CSV }
+
+    ImportSummary importUsers(InputStream in, Format format, Consumer<ImportError> errors) throws IOException;
+}
@@ -0,0 +1,17 @@
+package com.ecommerce.userservice.service;
+
+import com.ecommerce.userservice.dto.Admin.UserListItem;
+import com.ecommerce.userservice.dto.Admin.UserPageResponse;
+
+import java.util.function.Consumer;
+
+public interface UserListingService {
+
+    enum Order { ID, CREATED_AT }
+
+    /** First page when {@code cursor} is null; later pages take their order from the cursor. */
+    UserPageResponse list(String cursor, int limit, Order order);
+
+    /** Passes every user to {@code sink} in id order while the rows are read. Returns the number exported. */
+    long export(Consumer<UserListItem> sink);
+}
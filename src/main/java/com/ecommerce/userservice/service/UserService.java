@@ -4,6 +4,9 @@ import com.ecommerce.userservice.dto.User.RegisterRequest;
 import com.ecommerce.userservice.dto.User.UpdateProfileRequest;
 import com.ecommerce.userservice.dto.User.UserDTO;
 
+import java.util.Collection;
+import java.util.List;
+
 public interface UserService{
 
     UserDTO register(RegisterRequest request);
@@ -13,4 +16,11 @@ public interface UserService{
     void requestPasswordReset(String email);
     void confirmPasswordReset(String token, String newPassword);
     void ensureUserExists(String email);
+
+    /** Marks the account deleted; it disappears from every lookup and is archived after the retention period. */
+    void deleteAccount(String email);
+    void deleteUser(Long id);
+
+    /** Returns every user found by id or email, once each, loading them chunk by chunk. */
+    List<UserDTO> findUsers(Collection<Long> ids, Collection<String> emails);
 }
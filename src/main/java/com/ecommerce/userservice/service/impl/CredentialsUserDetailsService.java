@@ -0,0 +1,27 @@
+package com.ecommerce.userservice.service.impl;
+
+import com.ecommerce.userservice.config.ReplicaRoutingDataSource;
+import com.ecommerce.userservice.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Service;
+
+/**
+ * Loads the account for a credential check from the primary on every call. {@link UserDetailsCache} may still
+ * hold a replaced password hash or a deleted account on replicas that missed the invalidation broadcast, so
+ * it only serves {@link JpaUserDetailsService} lookups for already issued tokens.
+ */
+@Service
+@RequiredArgsConstructor
+public class CredentialsUserDetailsService implements UserDetailsService {
+
+    private final UserRepository userRepository;
+
+    @Override
+    public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+        return ReplicaRoutingDataSource.onPrimary(() -> userRepository.findByEmail(username))
+                .orElseThrow(() -> new UsernameNotFoundException("User not found" + username));
+    }
+}
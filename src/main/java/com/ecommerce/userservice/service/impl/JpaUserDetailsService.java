@@ -1,5 +1,6 @@
 package com.ecommerce.userservice.service.impl;
 
+import com.ecommerce.userservice.config.ReadYourWrites;
 import com.ecommerce.userservice.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -11,11 +12,17 @@ import org.springframework.stereotype.Service;
 @RequiredArgsConstructor
 public class JpaUserDetailsService  implements UserDetailsService {
     private final UserRepository userRepository;
+    private final ReadYourWrites readYourWrites;
+    private final UserDetailsCache userDetailsCache;
 
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-            return userRepository.findByEmail(username)
+            return userDetailsCache.get(username, this::load);
+        }
+
+    private UserDetails load(String username) {
+            return readYourWrites.read(username, () -> userRepository.findByEmail(username))
                     .orElseThrow(() -> new UsernameNotFoundException("User not found" + username));
         }
     }
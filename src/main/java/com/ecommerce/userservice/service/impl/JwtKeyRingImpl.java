@@ -0,0 +1,227 @@
+package com.ecommerce.userservice.service.impl;
+
+import com.ecommerce.userservice.config.ReplicaRoutingDataSource;
+import com.ecommerce.userservice.exception.BadRequestException;
+import com.ecommerce.userservice.model.JwtKey;
+import com.ecommerce.userservice.repository.JwtKeyRepository;
+import com.ecommerce.userservice.service.JwtKeyRing;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.WeakKeyException;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Holds the HMAC keys used to sign and verify tokens, indexed by their {@code kid} header.
+ * Keys are derived once when added; reads go through an immutable snapshot so the
+ * request path never locks. Tokens issued before key ids existed carry no {@code kid}
+ * and resolve to the key configured by {@code jwt.key-id}.
+ * <p>
+ * The configured keys are the baseline; keys added, activated or retired at runtime are stored
+ * in {@code jwt_key} and every instance reloads the ring from it every {@code jwt.keys.refresh-interval-ms}.
+ * The request path never reloads, so made-up key ids cost nothing; instead an activation only takes effect one
+ * refresh interval after it is written, by which time every instance has loaded the key to verify with.
+ * The table holds signing secrets, so it needs the same protection as {@code jwt.secret}.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class JwtKeyRingImpl implements JwtKeyRing {
+
+    private final JwtKeyRepository jwtKeyRepository;
+
+    @Value("${jwt.secret}") private String secret;
+    @Value("${jwt.key-id:default}") private String keyId;
+    @Value("${jwt.refresh-secret:}") private String refreshSecret;
+    @Value("${jwt.refresh-key-id:refresh}") private String refreshKeyId;
+    @Value("${jwt.keys.refresh-interval-ms:10000}") private long refreshIntervalMillis;
+
+    private record Entry(String kid, SecretKey key, Set<Purpose> purposes) {}
+
+    private record State(Map<String, Entry> entries, Map<Purpose, Entry> active) {}
+
+    private State configured;
+    private volatile State state = new State(Map.of(), Map.of());
+
+    @PostConstruct
+    public void init() {
+        Map<String, Entry> entries = new HashMap<>();
+        Map<Purpose, Entry> active = new EnumMap<>(Purpose.class);
+        if (refreshSecret == null || refreshSecret.isBlank()) {
+            Entry entry = entry(keyId, secret, EnumSet.allOf(Purpose.class));
+            entries.put(keyId, entry);
+            active.put(Purpose.ACCESS, entry);
+            active.put(Purpose.REFRESH, entry);
+        } else {
+            Entry access = entry(keyId, secret, EnumSet.of(Purpose.ACCESS));
+            Entry refresh = entry(refreshKeyId, refreshSecret, EnumSet.of(Purpose.REFRESH));
+            entries.put(keyId, access);
+            entries.put(refreshKeyId, refresh);
+            active.put(Purpose.ACCESS, access);
+            active.put(Purpose.REFRESH, refresh);
+        }
+        configured = new State(Map.copyOf(entries), Map.copyOf(active));
+        state = configured;
+        try {
+            reload();
+        } catch (DataAccessException e) {
+            log.warn("Could not load JWT keys at startup, using configured keys until the next refresh", e);
+        }
+    }
+
+    @Override
+    public SigningKey signingKey(Purpose purpose) {
+        Entry entry = state.active().get(purpose);
+        if (entry == null) {
+            throw new IllegalStateException("No active " + purpose + " signing key");
+        }
+        return new SigningKey(entry.kid(), entry.key());
+    }
+
+    @Override
+    public SecretKey verificationKey(Purpose purpose, String kid) {
+        String id = kid == null ? keyId : kid;
+        Entry entry = state.entries().get(id);
+        if (entry == null || !entry.purposes().contains(purpose)) {
+            throw new JwtException("Unknown " + purpose + " key id: " + kid);
+        }
+        return entry.key();
+    }
+
+    @Override
+    public synchronized void addKey(String kid, String secret, Set<Purpose> purposes) {
+        if (kid == null || kid.isBlank() || secret == null || purposes == null || purposes.isEmpty()) {
+            throw new BadRequestException("Key id, secret and purposes are required");
+        }
+        reload();
+        // retired ids stay taken so a token signed with the old secret can never verify again
+        if (state.entries().containsKey(kid) || jwtKeyRepository.existsById(kid)) {
+            throw new BadRequestException("Key id already exists");
+        }
+        entry(kid, secret, purposes);
+        jwtKeyRepository.save(new JwtKey(kid, secret, encode(purposes), null, null, Instant.now()));
+        reload();
+    }
+
+    @Override
+    public synchronized void activate(String kid) {
+        reload();
+        Entry entry = state.entries().get(kid);
+        if (entry == null) {
+            throw new BadRequestException("Unknown key id");
+        }
+        JwtKey row = row(entry);
+        row.setActivatedAt(Instant.now().plusMillis(refreshIntervalMillis));
+        jwtKeyRepository.save(row);
+        reload();
+    }
+
+    @Override
+    public synchronized void retireKey(String kid) {
+        reload();
+        Entry entry = state.entries().get(kid);
+        if (entry == null) {
+            throw new BadRequestException("Unknown key id");
+        }
+        if (state.active().values().stream().anyMatch(e -> e.kid().equals(kid))) {
+            throw new BadRequestException("Cannot retire an active signing key");
+        }
+        JwtKey row = row(entry);
+        row.setRetiredAt(Instant.now());
+        jwtKeyRepository.save(row);
+        reload();
+    }
+
+    @Override
+    public List<KeyInfo> keys() {
+        State current = state;
+        return current.entries().values().stream()
+                .sorted(Comparator.comparing(Entry::kid))
+                .map(e -> {
+                    Set<Purpose> activeFor = EnumSet.noneOf(Purpose.class);
+                    current.active().forEach((purpose, a) -> {
+                        if (a.kid().equals(e.kid())) activeFor.add(purpose);
+                    });
+                    return new KeyInfo(e.kid(), e.purposes(), activeFor);
+                })
+                .toList();
+    }
+
+    /** Rebuilds the ring from the configured keys plus the {@code jwt_key} rows, read on the primary. */
+    @Scheduled(fixedDelayString = "${jwt.keys.refresh-interval-ms:10000}",
+            initialDelayString = "${jwt.keys.refresh-interval-ms:10000}")
+    public synchronized void reload() {
+        Instant now = Instant.now();
+        List<JwtKey> rows = ReplicaRoutingDataSource.onPrimary(jwtKeyRepository::findAll);
+        State current = state;
+        Map<String, Entry> entries = new HashMap<>(configured.entries());
+        for (JwtKey row : rows) {
+            if (row.getRetiredAt() != null) {
+                entries.remove(row.getKid());
+            } else if (row.getSecret() != null) {
+                Entry known = current.entries().get(row.getKid());
+                entries.put(row.getKid(), known != null ? known : entry(row.getKid(), row.getSecret(), decode(row.getPurposes())));
+            }
+        }
+
+        // the latest activation that is due wins per purpose; configured keys count as activated at the epoch
+        Map<Purpose, Entry> active = new EnumMap<>(Purpose.class);
+        Map<Purpose, Instant> activatedAt = new EnumMap<>(Purpose.class);
+        configured.active().forEach((purpose, entry) -> {
+            if (entries.containsKey(entry.kid())) {
+                active.put(purpose, entry);
+                activatedAt.put(purpose, Instant.EPOCH);
+            }
+        });
+        for (JwtKey row : rows) {
+            Entry entry = entries.get(row.getKid());
+            if (entry == null || row.getActivatedAt() == null || row.getActivatedAt().isAfter(now)) {
+                continue;
+            }
+            for (Purpose purpose : entry.purposes()) {
+                Instant previous = activatedAt.get(purpose);
+                if (previous == null || row.getActivatedAt().isAfter(previous)) {
+                    active.put(purpose, entry);
+                    activatedAt.put(purpose, row.getActivatedAt());
+                }
+            }
+        }
+        state = new State(Map.copyOf(entries), Map.copyOf(active));
+    }
+
+    private JwtKey row(Entry entry) {
+        return jwtKeyRepository.findById(entry.kid())
+                .orElseGet(() -> new JwtKey(entry.kid(), null, encode(entry.purposes()), null, null, Instant.now()));
+    }
+
+    private static Entry entry(String kid, String secret, Set<Purpose> purposes) {
+        try {
+            return new Entry(kid, Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8)), Set.copyOf(purposes));
+        } catch (WeakKeyException e) {
+            throw new BadRequestException(e.getMessage());
+        }
+    }
+
+    private static String encode(Set<Purpose> purposes) {
+        return purposes.stream().sorted().map(Purpose::name).collect(Collectors.joining(","));
+    }
+
+    private static Set<Purpose> decode(String purposes) {
+        Set<Purpose> decoded = EnumSet.noneOf(Purpose.class);
+        for (String name : purposes.split(",")) {
+            decoded.add(Purpose.valueOf(name.trim()));
+        }
+        return decoded;
+    }
+}
@@ -1,90 +1,172 @@
 package com.ecommerce.userservice.service.impl;
 
-import com.ecommerce.userservice.repository.PasswordResetTokenRepository;
+import com.ecommerce.userservice.model.AuthenticatedUser;
+import com.ecommerce.userservice.model.User;
+import com.ecommerce.userservice.service.JwtKeyRing;
+import com.ecommerce.userservice.service.JwtKeyRing.Purpose;
 import com.ecommerce.userservice.service.JwtService;
+import com.ecommerce.userservice.service.RoleRegistry;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jws;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.ProtectedHeader;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
-import javax.crypto.SecretKey;
 import java.time.Instant;
-import java.util.Date;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
 
 @Service
 @RequiredArgsConstructor
 public class JwtServiceImpl implements JwtService {
 
-    @Value("${jwt.secret}") private String secret;
+    private static final String CLAIM_USER_ID = "uid";
+    private static final String CLAIM_ROLES = "roles";
+
     @Value("${jwt.issuer}") private String issuer;
     @Value("${jwt.access-exp-min}") private long accessExpMin;
     @Value("${jwt.refresh-exp-days}") private long refreshExpDays;
 
+    private final JwtKeyRing keyRing;
+    private final VerifiedTokenCache tokenCache;
+    private final RoleRegistry roleRegistry;
+    private final MeterRegistry meterRegistry;
+
+    private JwtParser accessParser;
+    private JwtParser refreshParser;
+    private final Map<Purpose, Timer> signTimers = new EnumMap<>(Purpose.class);
+    private final Map<Purpose, Timer> verifiedTimers = new EnumMap<>(Purpose.class);
+    private final Map<Purpose, Timer> rejectedTimers = new EnumMap<>(Purpose.class);
+
+    @PostConstruct
+    public void init() {
+        accessParser = parserFor(Purpose.ACCESS);
+        refreshParser = parserFor(Purpose.REFRESH);
+        for (Purpose purpose : Purpose.values()) {
+            String type = purpose.name().toLowerCase(Locale.ROOT);
+            signTimers.put(purpose, Timer.builder("auth.jwt.sign").tag("type", type).register(meterRegistry));
+            verifiedTimers.put(purpose, Timer.builder("auth.jwt.verify")
+                    .tag("type", type).tag("outcome", "success").register(meterRegistry));
+            rejectedTimers.put(purpose, Timer.builder("auth.jwt.verify")
+                    .tag("type", type).tag("outcome", "failure").register(meterRegistry));
+        }
+    }
 
-    private SecretKey key(){
-        return Keys.hmacShaKeyFor(secret.getBytes());
+    private JwtParser parserFor(Purpose purpose) {
+        return Jwts.parser()
+                .keyLocator(header -> keyRing.verificationKey(purpose,
+                        header instanceof ProtectedHeader protectedHeader ? protectedHeader.getKeyId() : null))
+                .build();
     }
 
     @Override
     public String generateToken(UserDetails principal) {
-        return generateAccess(principal.getUsername());
+        Map<String, Object> claims = new HashMap<>();
+        if (principal instanceof User user) {
+            claims.put(CLAIM_USER_ID, user.getId());
+        } else if (principal instanceof AuthenticatedUser user) {
+            claims.put(CLAIM_USER_ID, user.id());
+        }
+        claims.put(CLAIM_ROLES, principal.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList());
+        return generateAccess(principal.getUsername(), claims);
     }
 
     @Override
     public String generateToken(String username) {
-        return generateAccess(username);
+        return generateAccess(username, Map.of());
     }
 
-    private String generateAccess(String username) {
-        Instant now = Instant.now();
-        return Jwts.builder()
-                .subject(username)
-                .issuer(issuer)
-                .issuedAt(Date.from(now))
-                .expiration(Date.from(now.plusSeconds(accessExpMin*360)))
-                .signWith(key())
-                .compact();
+    private String generateAccess(String username, Map<String, Object> claims) {
+        return sign(Purpose.ACCESS, username, Instant.now().plusSeconds(accessExpMin*360), claims);
     }
 
     @Override
     public String generateRefreshToken(UserDetails principal) {
-        Instant now = Instant.now();
-        return Jwts.builder()
-                .subject(principal.getUsername())
-                .issuer(issuer)
-                .issuedAt(Date.from(now))
-                .expiration(Date.from(now.plusSeconds(refreshExpDays*24*3600)))
-                .signWith(key())
-                .compact();
+        return rotateRefreshToken(principal.getUsername());
     }
 
     @Override
     public String rotateRefreshToken(String username) {
-        Instant now = Instant.now();
-        return Jwts.builder()
+        return sign(Purpose.REFRESH, username, Instant.now().plusSeconds(refreshExpDays*24*3600), Map.of());
+    }
+
+    private String sign(Purpose purpose, String username, Instant expiresAt, Map<String, Object> claims) {
+        long startedAt = System.nanoTime();
+        JwtKeyRing.SigningKey signingKey = keyRing.signingKey(purpose);
+        String token = Jwts.builder()
+                .header().keyId(signingKey.kid()).and()
+                .claims(claims)
+                .id(UUID.randomUUID().toString())
                 .subject(username)
                 .issuer(issuer)
-                .issuedAt(Date.from(now))
-                .expiration(Date.from(now.plusSeconds(refreshExpDays*24*3600)))
-                .signWith(key())
+                .issuedAt(new Date())
+                .expiration(Date.from(expiresAt))
+                .signWith(signingKey.key())
                 .compact();
+        signTimers.get(purpose).record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        return token;
+    }
+
+    // only real verifications are timed; cache hits show up in the jwt.verified.tokens cache metrics
+    private Jws<Claims> verify(Purpose purpose, JwtParser parser, String token) {
+        long startedAt = System.nanoTime();
+        try {
+            Jws<Claims> jws = parser.parseSignedClaims(token);
+            verifiedTimers.get(purpose).record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+            return jws;
+        } catch (RuntimeException e) {
+            rejectedTimers.get(purpose).record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+            throw e;
+        }
     }
 
     @Override
     public String extractUserName(String token) {
-        return Jwts.parser()
-                .verifyWith(key()).build()
-                .parseSignedClaims(token)
-                .getPayload()
-                .getSubject();
+        return verifyAccessToken(token).getSubject();
+    }
+
+    @Override
+    public Claims verifyAccessToken(String token) {
+        VerifiedTokenCache.VerifiedToken verified = tokenCache.get(token, t -> verify(Purpose.ACCESS, accessParser, t));
+        if (tokenCache.isEnabled()) {
+            try {
+                keyRing.verificationKey(Purpose.ACCESS, verified.kid());
+            } catch (JwtException e) {
+                tokenCache.invalidate(token);
+                throw e;
+            }
+        }
+        return verified.claims();
+    }
+
+    @Override
+    public AuthenticatedUser principalFrom(Claims claims) {
+        List<?> roles = claims.get(CLAIM_ROLES, List.class);
+        if (roles == null) {
+            return null;
+        }
+        Number userId = claims.get(CLAIM_USER_ID, Number.class);
+        return new AuthenticatedUser(userId == null ? null : userId.longValue(), claims.getSubject(),
+                roleRegistry.authorities(roles));
+    }
+
+    @Override
+    public String validateRefreshToken(String token) {
+        return verifyRefreshToken(token).getSubject();
     }
 
     @Override
-    public void validateRefreshToken(String token) {
-        Jwts.parser().verifyWith(key()).build().parseSignedClaims(token);
+    public Claims verifyRefreshToken(String token) {
+        return verify(Purpose.REFRESH, refreshParser, token).getPayload();
     }
 
     @Override
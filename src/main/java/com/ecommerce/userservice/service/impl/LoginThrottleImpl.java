@@ -0,0 +1,190 @@
+package com.ecommerce.userservice.service.impl;
+
+import com.ecommerce.userservice.dto.Admin.LoginThrottleSettings;
+import com.ecommerce.userservice.dto.Admin.LoginThrottleStatsResponse;
+import com.ecommerce.userservice.exception.BadRequestException;
+import com.ecommerce.userservice.exception.TooManyRequestsException;
+import com.ecommerce.userservice.service.LoginThrottle;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Per-key sliding windows approximated from the current and previous fixed window, each packed into
+ * one {@link AtomicLong}. The limit check and the increment are a single CAS, so attempts never take
+ * a lock, concurrent attempts cannot overshoot the limit, and rejections only read.
+ * Keys live in size-bounded Caffeine caches that forget idle keys after two windows.
+ */
+@Service
+@RequiredArgsConstructor
+public class LoginThrottleImpl implements LoginThrottle {
+
+    private static final int MAX_COUNT = 0xFFFF;
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${auth.login-throttle.enabled:true}") private boolean enabled;
+    @Value("${auth.login-throttle.max-per-email:10}") private int maxPerEmail;
+    @Value("${auth.login-throttle.max-per-ip:100}") private int maxPerIp;
+    @Value("${auth.login-throttle.window:PT1M}") private Duration window;
+    @Value("${auth.login-throttle.max-keys:100000}") private long maxKeys;
+
+    LongSupplier clock = System::currentTimeMillis;
+
+    private record State(LoginThrottleSettings settings, Cache<String, Window> emails, Cache<String, Window> ips) {}
+
+    private volatile State state;
+    private Counter rejectedByEmail;
+    private Counter rejectedByIp;
+
+    @PostConstruct
+    public void init() {
+        rejectedByEmail = Counter.builder("auth.login.throttled").tag("key", "email").register(meterRegistry);
+        rejectedByIp = Counter.builder("auth.login.throttled").tag("key", "ip").register(meterRegistry);
+        state = newState(new LoginThrottleSettings(enabled, maxPerEmail, maxPerIp, window));
+    }
+
+    @Override
+    public void acquire(String email, String clientIp) {
+        State current = state;
+        LoginThrottleSettings settings = current.settings();
+        if (!settings.enabled()) {
+            return;
+        }
+        long now = clock.getAsLong();
+        long windowMillis = settings.window().toMillis();
+        Window byEmail = email == null ? null : current.emails().get(normalize(email), key -> new Window());
+        Window byIp = clientIp == null ? null : current.ips().get(clientIp, key -> new Window());
+
+        if (byIp != null && !byIp.tryAcquire(now, windowMillis, settings.maxPerIp())) {
+            rejectedByIp.increment();
+            throw tooMany(now, windowMillis);
+        }
+        if (byEmail != null && !byEmail.tryAcquire(now, windowMillis, settings.maxPerEmail())) {
+            // a rejected attempt does not count, so give back the slot the address just took
+            if (byIp != null) {
+                byIp.release(now, windowMillis);
+            }
+            rejectedByEmail.increment();
+            throw tooMany(now, windowMillis);
+        }
+    }
+
+    @Override
+    public void onSuccess(String email) {
+        if (email != null) {
+            state.emails().invalidate(normalize(email));
+        }
+    }
+
+    @Override
+    public LoginThrottleSettings settings() {
+        return state.settings();
+    }
+
+    @Override
+    public synchronized void update(LoginThrottleSettings settings) {
+        if (settings.window().isNegative() || settings.window().toMillis() < 1000) {
+            throw new BadRequestException("Window must be at least one second");
+        }
+        State current = state;
+        if (settings.window().equals(current.settings().window())) {
+            state = new State(settings, current.emails(), current.ips());
+        } else {
+            state = newState(settings);
+        }
+    }
+
+    @Override
+    public LoginThrottleStatsResponse stats() {
+        State current = state;
+        return new LoginThrottleStatsResponse(current.settings(), current.emails().estimatedSize(),
+                current.ips().estimatedSize(), (long) rejectedByEmail.count(), (long) rejectedByIp.count());
+    }
+
+    private State newState(LoginThrottleSettings settings) {
+        return new State(settings, cache(settings.window()), cache(settings.window()));
+    }
+
+    private Cache<String, Window> cache(Duration window) {
+        return Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(window.multipliedBy(2))
+                .build();
+    }
+
+    private TooManyRequestsException tooMany(long now, long windowMillis) {
+        long retryAfterMillis = windowMillis - Math.floorMod(now, windowMillis);
+        return new TooManyRequestsException("Too many login attempts, please retry later",
+                Math.max(1, (retryAfterMillis + 999) / 1000));
+    }
+
+    private static String normalize(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /** Window index (high 32 bits), previous window count (16 bits) and current window count (low 16 bits). */
+    static final class Window {
+
+        private final AtomicLong state = new AtomicLong();
+
+        /**
+         * Checks the sliding estimate and counts the attempt in one CAS, so concurrent attempts can never
+         * together exceed the limit. A rejection leaves the state untouched.
+         */
+        boolean tryAcquire(long now, long windowMillis, int limit) {
+            long index = now / windowMillis;
+            double previousWeight = (windowMillis - Math.floorMod(now, windowMillis)) / (double) windowMillis;
+            while (true) {
+                long packed = state.get();
+                int previous = previousCount(packed, index);
+                int current = currentCount(packed, index);
+                if (previous * previousWeight + current >= limit) {
+                    return false;
+                }
+                long updated = (index & 0xFFFFFFFFL) << 32 | (long) previous << 16 | Math.min(current + 1, MAX_COUNT);
+                if (state.compareAndSet(packed, updated)) {
+                    return true;
+                }
+            }
+        }
+
+        /** Undoes an attempt counted by {@link #tryAcquire} unless the window has moved on since. */
+        void release(long now, long windowMillis) {
+            long index = now / windowMillis;
+            while (true) {
+                long packed = state.get();
+                int current = currentCount(packed, index);
+                if (current == 0 || state.compareAndSet(packed, packed - 1)) {
+                    return;
+                }
+            }
+        }
+
+        private static int currentCount(long packed, long index) {
+            return indexOf(packed) == (index & 0xFFFFFFFFL) ? (int) (packed & MAX_COUNT) : 0;
+        }
+
+        private static long indexOf(long packed) {
+            return packed >>> 32;
+        }
+
+        private static int previousCount(long packed, long index) {
+            long stored = indexOf(packed);
+            if (stored == (index & 0xFFFFFFFFL)) {
+                return (int) (packed >>> 16 & MAX_COUNT);
+            }
+            return stored == ((index - 1) & 0xFFFFFFFFL) ? (int) (packed & MAX_COUNT) : 0;
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.ecommerce.userservice.service.impl;
+
+import com.ecommerce.userservice.model.OutboxEvent;
+import com.ecommerce.userservice.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.internals.RecordHeader;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Publishes rows written to the outbox by business transactions to Kafka in batches,
+ * marks them sent and prunes them after the retention period. Delivery is at least once:
+ * a row whose lease expires before it is marked sent is published again.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "outbox.relay.enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxRelay {
+
+    public static final String CONTENT_TYPE_HEADER = "content-type";
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final KafkaTemplate<String, byte[]> kafkaTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${outbox.relay.batch-size:100}") private int batchSize;
+    @Value("${outbox.relay.send-timeout-ms:10000}") private long sendTimeoutMillis;
+    @Value("${outbox.relay.lease:PT60S}") private Duration lease;
+    @Value("${outbox.prune.retention:PT24H}") private Duration retention;
+    @Value("${outbox.prune.chunk-size:1000}") private int pruneChunkSize;
+
+    private final LongAdder sentCount = new LongAdder();
+    private final LongAdder failedCount = new LongAdder();
+    private final LongAdder totalSendNanos = new LongAdder();
+    private final AtomicLong maxSendNanos = new AtomicLong();
+
+    @Scheduled(fixedDelayString = "${outbox.relay.interval-ms:500}")
+    public void relay() {
+        int published;
+        do {
+            published = publishPending();
+        } while (published == batchSize);
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.prune.interval-ms:600000}")
+    public void prune() {
+        Instant before = Instant.now().minus(retention);
+        int deleted;
+        do {
+            deleted = transactionTemplate.execute(status ->
+                    outboxEventRepository.deleteSentBefore(before, pruneChunkSize));
+        } while (deleted == pruneChunkSize);
+    }
+
+    /**
+     * Claims a batch with a lease and commits, publishes with no transaction or row lock held while
+     * waiting for acks, then marks the acknowledged rows sent in a second short transaction. Rows
+     * whose send failed or timed out stay claimed until the lease runs out and are then retried.
+     */
+    public int publishPending() {
+        List<OutboxEvent> batch = transactionTemplate.execute(status -> {
+            Instant now = Instant.now();
+            List<OutboxEvent> claimed = outboxEventRepository.findClaimableForUpdate(now, Limit.of(batchSize));
+            if (!claimed.isEmpty()) {
+                outboxEventRepository.claim(claimed.stream().map(OutboxEvent::getId).toList(), now.plus(lease));
+            }
+            return claimed;
+        });
+        if (batch == null || batch.isEmpty()) {
+            return 0;
+        }
+
+        Queue<Long> sent = new ConcurrentLinkedQueue<>();
+        CompletableFuture<?>[] sends = batch.stream()
+                .map(event -> send(event, sent))
+                .toArray(CompletableFuture[]::new);
+        try {
+            CompletableFuture.allOf(sends).get(sendTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException | TimeoutException e) {
+            log.warn("{} of {} outbox events not acknowledged, will retry", batch.size() - sent.size(), batch.size());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        List<Long> ids = List.copyOf(sent);
+        if (!ids.isEmpty()) {
+            transactionTemplate.executeWithoutResult(status -> outboxEventRepository.markSent(ids, Instant.now()));
+        }
+        return ids.size();
+    }
+
+    private CompletableFuture<?> send(OutboxEvent event, Queue<Long> sent) {
+        ProducerRecord<String, byte[]> record = new ProducerRecord<>(event.getTopic(), event.getMessageKey(), event.getPayload());
+        record.headers().add(new RecordHeader(CONTENT_TYPE_HEADER, event.getContentType().getBytes(StandardCharsets.UTF_8)));
+        long startedAt = System.nanoTime();
+        return kafkaTemplate.send(record).whenComplete((result, ex) -> {
+            long elapsed = System.nanoTime() - startedAt;
+            totalSendNanos.add(elapsed);
+            maxSendNanos.accumulateAndGet(elapsed, Math::max);
+            sendTimer(event.getTopic(), ex == null).record(elapsed, TimeUnit.NANOSECONDS);
+            if (ex == null) {
+                sentCount.increment();
+                sent.add(event.getId());
+            } else {
+                failedCount.increment();
+                log.warn("Failed to publish outbox event {}", event.getId(), ex);
+            }
+        });
+    }
+
+    // topics are a small fixed set; register() returns the existing timer after the first call
+    private Timer sendTimer(String topic, boolean success) {
+        return Timer.builder("outbox.send")
+                .tag("topic", topic)
+                .tag("outcome", success ? "success" : "failure")
+                .register(meterRegistry);
+    }
+
+    public long sentCount() {
+        return sentCount.sum();
+    }
+
+    public long failedCount() {
+        return failedCount.sum();
+    }
+
+    public double averageSendMillis() {
+        long count = sentCount.sum() + failedCount.sum();
+        return count == 0 ? 0 : totalSendNanos.sum() / (double) count / 1_000_000;
+    }
+
+    public double maxSendMillis() {
+        return maxSendNanos.get() / 1_000_000d;
+    }
+}
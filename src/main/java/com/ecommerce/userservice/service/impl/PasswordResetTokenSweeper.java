@@ -0,0 +1,92 @@
+package com.ecommerce.userservice.service.impl;
+
+import com.ecommerce.userservice.repository.PasswordResetTokenRepository;
+import com.ecommerce.userservice.service.SchedulerLockService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Deletes expired password reset tokens in short chunked transactions, one replica at a time.
+ * A run stops early when its lease is about to run out; the next run picks up the rest.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "password-reset.sweeper.enabled", havingValue = "true", matchIfMissing = true)
+public class PasswordResetTokenSweeper {
+
+    static final String LOCK_NAME = "password-reset-token-sweeper";
+
+    private final PasswordResetTokenRepository passwordResetTokenRepository;
+    private final SchedulerLockService schedulerLockService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${password-reset.sweeper.chunk-size:1000}") private int chunkSize;
+    @Value("${password-reset.sweeper.lease:PT5M}") private Duration lease;
+
+    private final LongAdder purged = new LongAdder();
+    private final LongAdder runs = new LongAdder();
+    private final LongAdder skipped = new LongAdder();
+    private final AtomicLong lastRunPurged = new AtomicLong();
+    private final AtomicLong lastRunMillis = new AtomicLong();
+
+    @Scheduled(fixedDelayString = "${password-reset.sweeper.interval-ms:300000}",
+            initialDelayString = "${password-reset.sweeper.initial-delay-ms:60000}")
+    public void sweep() {
+        if (!schedulerLockService.tryLock(LOCK_NAME, lease)) {
+            skipped.increment();
+            return;
+        }
+        long startedAt = System.nanoTime();
+        long deadline = startedAt + lease.toNanos() / 2;
+        long total = 0;
+        try {
+            Instant now = Instant.now();
+            int deleted;
+            do {
+                deleted = transactionTemplate.execute(status ->
+                        passwordResetTokenRepository.deleteExpiredBefore(now, chunkSize));
+                total += deleted;
+                purged.add(deleted);
+            } while (deleted == chunkSize && System.nanoTime() < deadline);
+        } finally {
+            schedulerLockService.unlock(LOCK_NAME);
+            runs.increment();
+            lastRunPurged.set(total);
+            lastRunMillis.set((System.nanoTime() - startedAt) / 1_000_000);
+        }
+        if (total > 0) {
+            log.info("Purged {} expired password reset tokens", total);
+        }
+    }
+
+    public long purgedCount() {
+        return purged.sum();
+    }
+
+    public long runCount() {
+        return runs.sum();
+    }
+
+    public long skippedCount() {
+        return skipped.sum();
+    }
+
+    public long lastRunPurged() {
+        return lastRunPurged.get();
+    }
+
+    public long lastRunMillis() {
+        return lastRunMillis.get();
+    }
+}
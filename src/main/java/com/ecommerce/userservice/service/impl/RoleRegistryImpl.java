@@ -0,0 +1,103 @@
+package com.ecommerce.userservice.service.impl;
+
+import com.ecommerce.userservice.exception.BadRequestException;
+import com.ecommerce.userservice.model.Authorities;
+import com.ecommerce.userservice.model.Role;
+import com.ecommerce.userservice.repository.RoleRepository;
+import com.ecommerce.userservice.service.RoleRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionException;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Loads the roles table at startup and reloads it on a fixed delay. The roles handed out are
+ * detached and must be treated as read-only. Authorities are never the role entities themselves
+ * but the shared {@link Authorities} instance for the name, whether or not the table has it.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RoleRegistryImpl implements RoleRegistry {
+
+    // authority lists are keyed by claim content; the cap only matters for unexpected role combinations
+    private static final int MAX_CACHED_LISTS = 256;
+
+    private final RoleRepository roleRepository;
+
+    private volatile Map<String, Role> roles = Map.of();
+    private final Map<List<?>, List<GrantedAuthority>> lists = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        try {
+            refresh();
+        } catch (DataAccessException | TransactionException e) {
+            log.warn("Could not load roles at startup, will retry on first use", e);
+        }
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${roles.refresh-interval-ms:300000}",
+            initialDelayString = "${roles.refresh-interval-ms:300000}")
+    public void refresh() {
+        Map<String, Role> loaded = roleRepository.findAll().stream()
+                .filter(role -> !role.isDeleted())
+                .collect(Collectors.toUnmodifiableMap(Role::getName, Function.identity()));
+        if (!sameRoles(roles, loaded)) {
+            roles = loaded;
+            lists.clear();
+        }
+    }
+
+    @Override
+    public Role require(String name) {
+        Role role = roles.get(name);
+        if (role == null) {
+            refresh();
+            role = roles.get(name);
+        }
+        if (role == null) {
+            throw new BadRequestException("Role not found");
+        }
+        return role;
+    }
+
+    @Override
+    public GrantedAuthority authority(String name) {
+        return Authorities.of(name);
+    }
+
+    @Override
+    public List<GrantedAuthority> authorities(List<?> names) {
+        List<GrantedAuthority> cached = lists.get(names);
+        if (cached != null) {
+            return cached;
+        }
+        List<GrantedAuthority> built = names.stream().map(name -> authority(name.toString())).toList();
+        if (lists.size() < MAX_CACHED_LISTS) {
+            lists.putIfAbsent(List.copyOf(names), built);
+        }
+        return built;
+    }
+
+    private static boolean sameRoles(Map<String, Role> current, Map<String, Role> loaded) {
+        if (current.size() != loaded.size()) {
+            return false;
+        }
+        return loaded.values().stream().allMatch(role -> {
+            Role existing = current.get(role.getName());
+            return existing != null && existing.getId().equals(role.getId());
+        });
+    }
+}
@@ -0,0 +1,48 @@
+package com.ecommerce.userservice.service.impl;
+
+import com.ecommerce.userservice.repository.SchedulerLockRepository;
+import com.ecommerce.userservice.service.SchedulerLockService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Lease-based lock on the {@code scheduler_lock} table. A lease expires on its own, so a replica
+ * that dies mid-job blocks the job for at most {@code leaseFor}.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(propagation = Propagation.REQUIRES_NEW)
+public class SchedulerLockServiceImpl implements SchedulerLockService {
+
+    private final SchedulerLockRepository schedulerLockRepository;
+
+    private final String owner = hostName() + "/" + UUID.randomUUID();
+
+    @Override
+    public boolean tryLock(String name, Duration leaseFor) {
+        Instant now = Instant.now();
+        schedulerLockRepository.insertIfAbsent(name, now);
+        return schedulerLockRepository.acquire(name, owner, now, now.plus(leaseFor)) == 1;
+    }
+
+    @Override
+    public void unlock(String name) {
+        schedulerLockRepository.release(name, owner, Instant.now());
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return "unknown";
+        }
+    }
+}
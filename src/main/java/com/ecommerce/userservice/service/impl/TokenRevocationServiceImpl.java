@@ -0,0 +1,243 @@
+package com.ecommerce.userservice.service.impl;
+
+import com.ecommerce.userservice.config.ReplicaRoutingDataSource;
+import com.ecommerce.userservice.repository.RevokedTokenRepository;
+import com.ecommerce.userservice.service.SchedulerLockService;
+import com.ecommerce.userservice.service.TokenRevocationService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps a Bloom filter of revoked ids that haven't expired. Every replica polls for ids revoked since
+ * its last sync (with an overlap for clock skew and late commits) and rebuilds the filter from the
+ * table on a longer delay, which is how expired ids drop out of memory. A filter hit is confirmed on
+ * the primary, and a confirmed revocation is remembered until the token's own expiry, so a revoked
+ * token that keeps being replayed costs one query. A miss on the primary (an expired row or a false
+ * positive) is remembered for {@code revocation.negative.ttl}, or until a sync or local revocation
+ * touches the key. Expired rows are purged by one replica at a time.
+ * <p>
+ * Subject cutoffs share the table and the filter under a {@code sub:} key, with {@code revoked_at} as the
+ * cutoff; the row lives as long as the longest token issued before it, a refresh token.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TokenRevocationServiceImpl implements TokenRevocationService {
+
+    static final String PURGE_LOCK_NAME = "revoked-token-purge";
+    private static final Duration SYNC_OVERLAP = Duration.ofSeconds(10);
+    private static final String SUBJECT_PREFIX = "sub:";
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final SchedulerLockService schedulerLockService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${revocation.bloom.expected-entries:100000}") private long expectedEntries;
+    @Value("${revocation.bloom.false-positive-rate:0.001}") private double falsePositiveRate;
+    @Value("${revocation.purge.chunk-size:1000}") private int purgeChunkSize;
+    @Value("${revocation.purge.lease:PT5M}") private Duration purgeLease;
+    @Value("${revocation.confirmed.max-size:10000}") private long confirmedMaxSize;
+    @Value("${revocation.negative.ttl:PT5S}") private Duration negativeTtl;
+    @Value("${jwt.refresh-exp-days}") private long refreshExpDays;
+
+    private volatile BloomFilter filter;
+    private volatile Instant lastSync;
+    private Cache<String, Instant> confirmed;
+    private Cache<String, Instant> cutoffs;
+    private Cache<String, Boolean> notRevoked;
+    // bumped whenever keys may have been revoked, so a lookup that raced a revocation is not remembered as a miss
+    private final AtomicLong revocations = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        filter = new BloomFilter(expectedEntries, falsePositiveRate);
+        confirmed = Caffeine.newBuilder()
+                .maximumSize(confirmedMaxSize)
+                .expireAfter(Expiry.<String, Instant>writing((jti, expiresAt) -> Duration.between(Instant.now(), expiresAt)))
+                .build();
+        cutoffs = Caffeine.newBuilder()
+                .maximumSize(confirmedMaxSize)
+                .expireAfterWrite(Duration.ofDays(refreshExpDays))
+                .build();
+        notRevoked = Caffeine.newBuilder()
+                .maximumSize(confirmedMaxSize)
+                .expireAfterWrite(negativeTtl)
+                .build();
+        try {
+            rebuild();
+        } catch (DataAccessException | TransactionException e) {
+            log.warn("Could not load revoked tokens at startup, will retry on next sync", e);
+        }
+    }
+
+    @Override
+    public void revoke(Claims claims) {
+        if (claims.getId() == null || claims.getExpiration() == null) {
+            return;
+        }
+        String jti = claims.getId();
+        Instant expiresAt = claims.getExpiration().toInstant();
+        Instant now = Instant.now();
+        transactionTemplate.executeWithoutResult(status -> {
+            revokedTokenRepository.insertIfAbsent(jti, expiresAt, now);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    filter.add(jti);
+                    confirmed.put(jti, expiresAt);
+                    forgetMiss(jti);
+                }
+            });
+        });
+    }
+
+    @Override
+    public void revokeAllFor(String subject, Instant at) {
+        String key = SUBJECT_PREFIX + subject;
+        Instant expiresAt = at.plus(Duration.ofDays(refreshExpDays));
+        transactionTemplate.executeWithoutResult(status -> {
+            revokedTokenRepository.upsert(key, expiresAt, at);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    filter.add(key);
+                    cutoffs.put(key, at);
+                    forgetMiss(key);
+                }
+            });
+        });
+    }
+
+    @Override
+    public boolean isRevoked(Claims claims) {
+        if (isRevoked(claims.getId())) {
+            return true;
+        }
+        if (claims.getSubject() == null) {
+            return false;
+        }
+        String key = SUBJECT_PREFIX + claims.getSubject();
+        if (!filter.mightContain(key) || notRevoked.getIfPresent(key) != null) {
+            return false;
+        }
+        Instant cutoff = cutoffs.getIfPresent(key);
+        if (cutoff == null) {
+            long seen = revocations.get();
+            Optional<Instant> revokedAt = ReplicaRoutingDataSource.onPrimary(
+                    () -> revokedTokenRepository.findActiveRevokedAt(key, Instant.now()));
+            if (revokedAt.isEmpty()) {
+                rememberMiss(key, seen);
+                return false;
+            }
+            cutoff = revokedAt.get();
+            cutoffs.put(key, cutoff);
+        }
+        // iat has second precision, so a token issued in the cutoff's second counts as issued before it
+        return claims.getIssuedAt() == null || claims.getIssuedAt().toInstant().isBefore(cutoff);
+    }
+
+    @Override
+    public boolean isRevoked(String jti) {
+        if (jti == null || !filter.mightContain(jti)) {
+            return false;
+        }
+        if (confirmed.getIfPresent(jti) != null) {
+            return true;
+        }
+        if (notRevoked.getIfPresent(jti) != null) {
+            return false;
+        }
+        // a possible hit: revoked, expired since the last rebuild, or a false positive. The primary
+        // answers, since a replica may not have the row yet when the revocation was just written
+        long seen = revocations.get();
+        Optional<Instant> expiresAt = ReplicaRoutingDataSource.onPrimary(
+                () -> revokedTokenRepository.findActiveExpiresAt(jti, Instant.now()));
+        if (expiresAt.isEmpty()) {
+            rememberMiss(jti, seen);
+            return false;
+        }
+        confirmed.put(jti, expiresAt.get());
+        return true;
+    }
+
+    private void rememberMiss(String key, long seen) {
+        notRevoked.put(key, Boolean.TRUE);
+        if (revocations.get() != seen) {
+            notRevoked.invalidate(key);
+        }
+    }
+
+    private void forgetMiss(String key) {
+        revocations.incrementAndGet();
+        notRevoked.invalidate(key);
+    }
+
+    @Scheduled(fixedDelayString = "${revocation.sync-interval-ms:1000}",
+            initialDelayString = "${revocation.sync-interval-ms:1000}")
+    public void sync() {
+        if (lastSync == null) {
+            rebuild();
+            return;
+        }
+        Instant now = Instant.now();
+        List<String> revoked = revokedTokenRepository.findJtisRevokedSince(lastSync.minus(SYNC_OVERLAP), now);
+        BloomFilter current = filter;
+        revoked.forEach(current::add);
+        // a cutoff may have moved forward on another replica, and a remembered miss may now be revoked
+        cutoffs.invalidateAll(revoked);
+        if (!revoked.isEmpty()) {
+            revocations.incrementAndGet();
+            notRevoked.invalidateAll(revoked);
+        }
+        lastSync = now;
+    }
+
+    @Scheduled(fixedDelayString = "${revocation.rebuild-interval-ms:3600000}",
+            initialDelayString = "${revocation.rebuild-interval-ms:3600000}")
+    public synchronized void rebuild() {
+        Instant now = Instant.now();
+        List<String> active = revokedTokenRepository.findActiveJtis(now);
+        BloomFilter rebuilt = new BloomFilter(Math.max(expectedEntries, active.size() * 2L), falsePositiveRate);
+        active.forEach(rebuilt::add);
+        // revocations committed while loading are picked up by the next sync through the overlap
+        filter = rebuilt;
+        lastSync = now;
+    }
+
+    @Scheduled(fixedDelayString = "${revocation.purge.interval-ms:600000}",
+            initialDelayString = "${revocation.purge.initial-delay-ms:60000}")
+    public void purgeExpired() {
+        if (!schedulerLockService.tryLock(PURGE_LOCK_NAME, purgeLease)) {
+            return;
+        }
+        try {
+            Instant now = Instant.now();
+            int deleted;
+            do {
+                deleted = transactionTemplate.execute(status ->
+                        revokedTokenRepository.deleteExpiredBefore(now, purgeChunkSize));
+            } while (deleted == purgeChunkSize);
+        } finally {
+            schedulerLockService.unlock(PURGE_LOCK_NAME);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.ecommerce.userservice.service.impl;
+
+import com.ecommerce.userservice.repository.UserRepository;
+import com.ecommerce.userservice.service.SchedulerLockService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Moves accounts deleted longer than {@code users.archiver.retention} ago, with their role links, from
+ * users/users_roles to users_archive/users_roles_archive. Each chunk is copied and deleted in one short
+ * transaction, one replica at a time; a run stops early when its lease is about to run out.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "users.archiver.enabled", havingValue = "true", matchIfMissing = true)
+public class UserArchiver {
+
+    static final String LOCK_NAME = "user-archiver";
+
+    private final UserRepository userRepository;
+    private final SchedulerLockService schedulerLockService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${users.archiver.retention:P30D}") private Duration retention;
+    @Value("${users.archiver.chunk-size:500}") private int chunkSize;
+    @Value("${users.archiver.lease:PT5M}") private Duration lease;
+
+    private final LongAdder archived = new LongAdder();
+    private final LongAdder runs = new LongAdder();
+    private final LongAdder skipped = new LongAdder();
+    private final AtomicLong lastRunArchived = new AtomicLong();
+    private final AtomicLong lastRunMillis = new AtomicLong();
+
+    @Scheduled(fixedDelayString = "${users.archiver.interval-ms:600000}",
+            initialDelayString = "${users.archiver.initial-delay-ms:120000}")
+    public void archive() {
+        if (!schedulerLockService.tryLock(LOCK_NAME, lease)) {
+            skipped.increment();
+            return;
+        }
+        long startedAt = System.nanoTime();
+        long deadline = startedAt + lease.toNanos() / 2;
+        long total = 0;
+        try {
+            Instant now = Instant.now();
+            Instant cutoff = now.minus(retention);
+            int moved;
+            do {
+                moved = transactionTemplate.execute(status -> archiveChunk(cutoff, now));
+                total += moved;
+                archived.add(moved);
+            } while (moved == chunkSize && System.nanoTime() < deadline);
+        } finally {
+            schedulerLockService.unlock(LOCK_NAME);
+            runs.increment();
+            lastRunArchived.set(total);
+            lastRunMillis.set((System.nanoTime() - startedAt) / 1_000_000);
+        }
+        if (total > 0) {
+            log.info("Archived {} deleted users", total);
+        }
+    }
+
+    private int archiveChunk(Instant cutoff, Instant now) {
+        List<Long> ids = userRepository.findDeletedBefore(cutoff, chunkSize);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        userRepository.copyToArchive(ids, now);
+        userRepository.copyRoleLinksToArchive(ids);
+        userRepository.deleteRoleLinks(ids);
+        userRepository.deleteArchived(ids);
+        return ids.size();
+    }
+
+    public long archivedCount() {
+        return archived.sum();
+    }
+
+    public long runCount() {
+        return runs.sum();
+    }
+
+    public long skippedCount() {
+        return skipped.sum();
+    }
+
+    public long lastRunArchived() {
+        return lastRunArchived.get();
+    }
+
+    public long lastRunMillis() {
+        return lastRunMillis.get();
+    }
+}
@@ -0,0 +1,215 @@
+package com.ecommerce.userservice.service.impl;
+
+import com.ecommerce.userservice.config.ReadYourWrites;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.function.Function;
+
+/**
+ * Bounded, time-limited cache of principals by email in front of {@link JpaUserDetailsService}. Concurrent
+ * misses for one email wait on a single load, which runs on the first caller's thread without holding any
+ * cache lock, so loads never block other keys or evictions. {@link #evict} drops the entry once the writing transaction
+ * commits and broadcasts the email on {@code user-details.cache.invalidation-topic} so other replicas drop it too;
+ * a lost broadcast is bounded by {@code user-details.cache.ttl}. Password checks never read it, see
+ * {@link CredentialsUserDetailsService}.
+ * Cached principals are detached entities shared between requests and must be treated as read-only.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UserDetailsCache implements MeterBinder {
+
+    private final KafkaTemplate<String, byte[]> kafkaTemplate;
+    private final ReadYourWrites readYourWrites;
+
+    @Value("${user-details.cache.enabled:true}") private boolean enabled;
+    @Value("${user-details.cache.max-size:100000}") private long maxSize;
+    @Value("${user-details.cache.ttl:PT60S}") private Duration ttl;
+    @Value("${user-details.cache.invalidation-topic:user-details-invalidation}") private String topic;
+    @Value("${user-details.cache.broadcast:true}") private boolean broadcast;
+    @Value("${user-details.cache.instance-id:}") private String configuredInstanceId;
+    @Value("${spring.application.name:UserService}") private String applicationName;
+
+    // sent as the record value so a replica ignores its own broadcasts
+    private final String instanceId = UUID.randomUUID().toString();
+
+    private AsyncCache<String, UserDetails> cache;
+    private ThreadPoolExecutor publisher;
+
+    @PostConstruct
+    public void init() {
+        if (!enabled) {
+            return;
+        }
+        cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .buildAsync();
+        if (broadcast) {
+            // sends leave the request thread: a KafkaTemplate send blocks while broker metadata is unavailable
+            publisher = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(10_000),
+                    new CustomizableThreadFactory("user-details-invalidation-"), new ThreadPoolExecutor.DiscardPolicy());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (publisher != null) {
+            publisher.shutdown();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (cache != null) {
+            CaffeineCacheMetrics.monitor(registry, cache.synchronous(), "auth.user.details");
+        }
+    }
+
+    public boolean isEnabled() {
+        return cache != null;
+    }
+
+    /** Returns the cached principal or runs {@code loader} once for all threads missing on the same email. */
+    public UserDetails get(String email, Function<String, UserDetails> loader) {
+        if (cache == null) {
+            return loader.apply(email);
+        }
+        CompletableFuture<UserDetails> created = new CompletableFuture<>();
+        CompletableFuture<UserDetails> future = cache.get(email, (key, executor) -> created);
+        if (future == created) {
+            try {
+                created.complete(loader.apply(email));
+            } catch (Throwable t) {
+                // a failed future is dropped from the cache, so the next caller loads again
+                created.completeExceptionally(t);
+            }
+        }
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    /** Drops {@code email} here and on every other replica after the current transaction commits. */
+    public void evict(String email) {
+        if (cache == null || email == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictAndPublish(email);
+                }
+            });
+        } else {
+            evictAndPublish(email);
+        }
+    }
+
+    private void evictAndPublish(String email) {
+        // an in-flight load is dropped with the entry: callers already waiting on it still get its value,
+        // but it is not left in the cache
+        cache.synchronous().invalidate(email);
+        if (publisher != null) {
+            publisher.execute(() -> publish(email));
+        }
+    }
+
+    private void publish(String email) {
+        try {
+            kafkaTemplate.send(new ProducerRecord<>(topic, email, instanceId.getBytes(StandardCharsets.UTF_8)))
+                    .whenComplete((result, ex) -> {
+                        if (ex != null) {
+                            log.warn("Failed to broadcast user details invalidation", ex);
+                        }
+                    });
+        } catch (RuntimeException e) {
+            log.warn("Failed to broadcast user details invalidation", e);
+        }
+    }
+
+    /**
+     * A group per instance, so every replica sees every invalidation. It is stable across restarts so the
+     * broker does not collect a new group per start; set {@code user-details.cache.instance-id} when several
+     * instances share a host name.
+     */
+    public String getGroupId() {
+        String instance = configuredInstanceId == null || configuredInstanceId.isBlank()
+                ? hostName() : configuredInstanceId;
+        return applicationName + "-user-details-" + instance;
+    }
+
+    @KafkaListener(topics = "${user-details.cache.invalidation-topic:user-details-invalidation}",
+            groupId = "#{__listener.groupId}",
+            autoStartup = "${user-details.cache.broadcast:true}",
+            properties = {
+                    "key.deserializer=org.apache.kafka.common.serialization.StringDeserializer",
+                    "value.deserializer=org.apache.kafka.common.serialization.ByteArrayDeserializer"
+            })
+    public void onInvalidation(ConsumerRecord<String, byte[]> record) {
+        if (cache == null || record.key() == null || (record.value() != null
+                && instanceId.equals(new String(record.value(), StandardCharsets.UTF_8)))) {
+            return;
+        }
+        // the next load goes to the primary in case this replica's database has not caught up
+        readYourWrites.recordWrite(record.key());
+        cache.synchronous().invalidate(record.key());
+    }
+
+    public void invalidateAll() {
+        if (cache != null) {
+            cache.synchronous().invalidateAll();
+        }
+    }
+
+    public long size() {
+        return cache == null ? 0 : cache.synchronous().estimatedSize();
+    }
+
+    public CacheStats stats() {
+        return cache == null ? CacheStats.empty() : cache.synchronous().stats();
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return "unknown";
+        }
+    }
+}
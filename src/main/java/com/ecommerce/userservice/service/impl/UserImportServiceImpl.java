@@ -0,0 +1,304 @@
+package com.ecommerce.userservice.service.impl;
+
+import com.ecommerce.userservice.dto.Admin.ImportError;
+import com.ecommerce.userservice.dto.Admin.ImportRecord;
+import com.ecommerce.userservice.dto.Admin.ImportSummary;
+import com.ecommerce.userservice.exception.ServiceUnavailableException;
+import com.ecommerce.userservice.model.Role;
+import com.ecommerce.userservice.model.User;
+import com.ecommerce.userservice.repository.UserRepository;
+import com.ecommerce.userservice.service.RoleRegistry;
+import com.ecommerce.userservice.service.UserImportService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * Imports users from an NDJSON or CSV stream in fixed-size chunks: one set-based duplicate query
+ * and one batched insert per chunk, with the persistence context cleared in between so memory
+ * stays flat regardless of input size. Bad records are reported and skipped. A chunk's passwords are
+ * hashed concurrently, at most one per hashing-pool thread so logins keep their queue slots, and a
+ * saturated pool is waited out for its Retry-After rather than failing the row.
+ */
+@Service
+@RequiredArgsConstructor
+public class UserImportServiceImpl implements UserImportService {
+
+    private static final Pattern EMAIL = Pattern.compile("^[^@\\s]+@[^@\\s]+$");
+    private static final Pattern BCRYPT = Pattern.compile("^\\$2[aby]?\\$\\d{2}\\$[./A-Za-z0-9]{53}$");
+
+    private final UserRepository userRepository;
+    private final RoleRegistry roleRegistry;
+    private final PasswordEncoder passwordEncoder;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+
+    @Value("${import.chunk-size:500}") private int chunkSize;
+    @Value("${password.hashing.threads:0}") private int hashingThreads;
+    @Value("${import.hash-attempts:5}") private int hashAttempts;
+
+    private record Row(long line, ImportRecord record) {}
+
+    @Override
+    public ImportSummary importUsers(InputStream in, Format format, Consumer<ImportError> errors) throws IOException {
+        Role role = roleRegistry.require("ROLE_USER");
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        long line = 0;
+        String[] header = null;
+        if (format == Format.CSV) {
+            String headerLine = reader.readLine();
+            line++;
+            if (headerLine == null) {
+                return new ImportSummary(0, 0, 0);
+            }
+            header = splitCsv(headerLine);
+        }
+
+        int threads = hashingThreads > 0 ? hashingThreads : Runtime.getRuntime().availableProcessors();
+        ExecutorService hashers = Executors.newFixedThreadPool(threads, new CustomizableThreadFactory("import-hash-"));
+        try {
+            return importRows(reader, format, header, line, role, hashers, errors);
+        } finally {
+            hashers.shutdownNow();
+        }
+    }
+
+    private ImportSummary importRows(BufferedReader reader, Format format, String[] header, long line, Role role,
+                                     ExecutorService hashers, Consumer<ImportError> errors) throws IOException {
+        long processed = 0;
+        long imported = 0;
+        List<Row> chunk = new ArrayList<>(chunkSize);
+        String text;
+        while ((text = reader.readLine()) != null) {
+            line++;
+            if (text.isBlank()) {
+                continue;
+            }
+            processed++;
+            try {
+                chunk.add(new Row(line, format == Format.CSV ? fromCsv(header, text) : fromJson(text)));
+            } catch (IllegalArgumentException e) {
+                errors.accept(new ImportError(line, null, "Malformed record"));
+            }
+            if (chunk.size() == chunkSize) {
+                imported += importChunk(chunk, role, hashers, errors);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            imported += importChunk(chunk, role, hashers, errors);
+        }
+        return new ImportSummary(processed, imported, processed - imported);
+    }
+
+    private int importChunk(List<Row> chunk, Role role, ExecutorService hashers, Consumer<ImportError> errors) {
+        Map<String, Row> byEmail = new LinkedHashMap<>();
+        for (Row row : chunk) {
+            String error = validate(row.record());
+            if (error != null) {
+                errors.accept(new ImportError(row.line(), row.record().email(), error));
+            } else if (byEmail.putIfAbsent(row.record().email(), row) != null) {
+                errors.accept(new ImportError(row.line(), row.record().email(), "Duplicate email in import"));
+            }
+        }
+        if (byEmail.isEmpty()) {
+            return 0;
+        }
+
+        Set<String> existing = userRepository.findExistingEmails(byEmail.keySet());
+        List<Row> candidates = new ArrayList<>(byEmail.size());
+        List<CompletableFuture<String>> hashes = new ArrayList<>(byEmail.size());
+        for (Row row : byEmail.values()) {
+            if (existing.contains(row.record().email())) {
+                errors.accept(new ImportError(row.line(), row.record().email(), "Email already exists"));
+                continue;
+            }
+            candidates.add(row);
+            hashes.add(isPreHashed(row.record())
+                    ? CompletableFuture.completedFuture(row.record().passwordHash())
+                    : CompletableFuture.supplyAsync(() -> encode(row.record().password()), hashers));
+        }
+
+        List<Row> accepted = new ArrayList<>(candidates.size());
+        List<User> users = new ArrayList<>(candidates.size());
+        for (int i = 0; i < candidates.size(); i++) {
+            Row row = candidates.get(i);
+            String hash;
+            try {
+                hash = hashes.get(i).join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof ServiceUnavailableException) {
+                    errors.accept(new ImportError(row.line(), row.record().email(), "Password hashing unavailable, retry later"));
+                    continue;
+                }
+                if (e.getCause() instanceof IllegalArgumentException) {
+                    errors.accept(new ImportError(row.line(), row.record().email(), "Password rejected"));
+                    continue;
+                }
+                throw e.getCause() instanceof RuntimeException runtime ? runtime : e;
+            }
+            accepted.add(row);
+            users.add(toUser(row.record(), hash, role));
+        }
+        if (users.isEmpty()) {
+            return 0;
+        }
+
+        try {
+            insert(users);
+            return users.size();
+        } catch (DataIntegrityViolationException e) {
+            // a concurrent signup raced the chunk; retry row by row so only the conflicting records fail
+            int inserted = 0;
+            for (int i = 0; i < accepted.size(); i++) {
+                User user = users.get(i);
+                try {
+                    insert(List.of(User.builder()
+                            .name(user.getName())
+                            .email(user.getEmail())
+                            .password(user.getPassword())
+                            .roles(List.of(role))
+                            .build()));
+                    inserted++;
+                } catch (DataIntegrityViolationException rowFailure) {
+                    errors.accept(new ImportError(accepted.get(i).line(), accepted.get(i).record().email(),
+                            "Email already exists"));
+                }
+            }
+            return inserted;
+        }
+    }
+
+    // flushing through the repository proxy gets unique-key violations translated to
+    // DataIntegrityViolationException; a bare EntityManager.flush() would surface them untranslated
+    private void insert(List<User> users) {
+        transactionTemplate.executeWithoutResult(status -> {
+            userRepository.saveAllAndFlush(users);
+            entityManager.clear();
+        });
+    }
+
+    private String encode(String password) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return passwordEncoder.encode(password);
+            } catch (ServiceUnavailableException e) {
+                if (attempt >= hashAttempts) {
+                    throw e;
+                }
+                try {
+                    Thread.sleep(TimeUnit.SECONDS.toMillis(e.getRetryAfterSeconds()));
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private static boolean isPreHashed(ImportRecord record) {
+        return record.passwordHash() != null && !record.passwordHash().isBlank();
+    }
+
+    private static User toUser(ImportRecord record, String hash, Role role) {
+        return User.builder()
+                .name(record.name().trim())
+                .email(record.email())
+                .password(hash)
+                .roles(List.of(role))
+                .build();
+    }
+
+    private static String validate(ImportRecord record) {
+        if (record.email() == null || !EMAIL.matcher(record.email()).matches()) {
+            return "Invalid email";
+        }
+        if (record.name() == null || record.name().isBlank()) {
+            return "Name is required";
+        }
+        boolean hasHash = isPreHashed(record);
+        if (hasHash && !BCRYPT.matcher(record.passwordHash()).matches()) {
+            return "Unsupported password hash";
+        }
+        if (!hasHash && (record.password() == null || record.password().isBlank())) {
+            return "Password is required";
+        }
+        return null;
+    }
+
+    private ImportRecord fromJson(String text) {
+        try {
+            ImportRecord record = objectMapper.readValue(text, ImportRecord.class);
+            if (record == null) {
+                throw new IllegalArgumentException("Empty record");
+            }
+            return record;
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    private static ImportRecord fromCsv(String[] header, String text) {
+        String[] values = splitCsv(text);
+        Map<String, String> fields = new HashMap<>();
+        for (int i = 0; i < header.length && i < values.length; i++) {
+            fields.put(header[i].trim().toLowerCase(Locale.ROOT), values[i]);
+        }
+        return new ImportRecord(fields.get("name"), fields.get("email"), fields.get("password"),
+                fields.get("password_hash"));
+    }
+
+    private static String[] splitCsv(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quote");
+        }
+        values.add(current.toString());
+        return values.toArray(String[]::new);
+    }
+}
@@ -0,0 +1,110 @@
+package com.ecommerce.userservice.service.impl;
+
+import com.ecommerce.userservice.dto.Admin.UserListItem;
+import com.ecommerce.userservice.dto.Admin.UserPageResponse;
+import com.ecommerce.userservice.exception.BadRequestException;
+import com.ecommerce.userservice.repository.UserRepository;
+import com.ecommerce.userservice.service.UserListingService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Admin listing by keyset pagination over (id) or (created_at, id), and a full export read through a
+ * forward-only JDBC cursor so neither holds more than a page or a fetch block of rows in memory.
+ * The export sets its fetch size on its own statement only; the default {@code Integer.MIN_VALUE} is
+ * what makes Connector/J stream rows instead of buffering the result, without changing any other query.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class UserListingServiceImpl implements UserListingService {
+
+    private static final String EXPORT_SQL = "select id, name, email, created_at from users where deleted = false order by id";
+
+    private final UserRepository userRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${admin.users.page.max-size:500}") private int maxPageSize;
+    @Value("${admin.users.export.fetch-size:-2147483648}") private int exportFetchSize;
+
+    @Override
+    public UserPageResponse list(String cursor, int limit, Order order) {
+        if (limit < 1 || limit > maxPageSize) {
+            throw new BadRequestException("limit must be between 1 and " + maxPageSize);
+        }
+        Cursor after = cursor == null || cursor.isBlank() ? Cursor.first(order) : Cursor.decode(cursor);
+        // one extra row tells whether another page exists without a count query
+        Limit fetch = Limit.of(limit + 1);
+        List<UserListItem> rows = after.order() == Order.ID
+                ? userRepository.findPageAfterId(after.id(), fetch)
+                : userRepository.findPageAfterCreatedAt(after.createdAt(), after.id(), fetch);
+        if (rows.size() <= limit) {
+            return new UserPageResponse(rows, null);
+        }
+        List<UserListItem> page = rows.subList(0, limit);
+        UserListItem last = page.get(limit - 1);
+        return new UserPageResponse(List.copyOf(page), new Cursor(after.order(), last.createdAt(), last.id()).encode());
+    }
+
+    @Override
+    public long export(Consumer<UserListItem> sink) {
+        long[] exported = {0};
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(EXPORT_SQL,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(exportFetchSize);
+            return statement;
+        }, (RowCallbackHandler) rs -> {
+            Timestamp createdAt = rs.getTimestamp(4);
+            sink.accept(new UserListItem(rs.getLong(1), rs.getString(2), rs.getString(3),
+                    createdAt == null ? null : createdAt.toInstant()));
+            exported[0]++;
+        });
+        return exported[0];
+    }
+
+    /** Opaque to clients: base64url of {@code i:<id>} or {@code c:<createdAt>:<id>}. */
+    private record Cursor(Order order, Instant createdAt, long id) {
+
+        static Cursor first(Order order) {
+            return new Cursor(order, Instant.EPOCH, 0);
+        }
+
+        String encode() {
+            String raw = order == Order.ID ? "i:" + id : "c:" + createdAt + ":" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Cursor decode(String cursor) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                if (raw.startsWith("i:")) {
+                    return new Cursor(Order.ID, null, Long.parseLong(raw.substring(2)));
+                }
+                int split = raw.lastIndexOf(':');
+                if (raw.startsWith("c:") && split > 2) {
+                    return new Cursor(Order.CREATED_AT, Instant.parse(raw.substring(2, split)),
+                            Long.parseLong(raw.substring(split + 1)));
+                }
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                // reported below
+            }
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+}
@@ -1,30 +1,37 @@
 package com.ecommerce.userservice.service.impl;
 
-import com.ecommerce.userservice.dto.SendEmailDto;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import org.springframework.kafka.core.KafkaTemplate;
+import com.ecommerce.userservice.config.ReadYourWrites;
+import com.ecommerce.userservice.event.EmailEvent;
+import com.ecommerce.userservice.event.EmailEventCodec;
+import com.ecommerce.userservice.event.EncodedEvent;
 import org.springframework.transaction.annotation.Transactional;
 import com.ecommerce.userservice.dto.User.RegisterRequest;
 import com.ecommerce.userservice.dto.User.UpdateProfileRequest;
 import com.ecommerce.userservice.dto.User.UserDTO;
 import com.ecommerce.userservice.exception.BadRequestException;
 import com.ecommerce.userservice.exception.ResourceNotFoundException;
+import com.ecommerce.userservice.model.OutboxEvent;
 import com.ecommerce.userservice.model.PasswordResetToken;
 import com.ecommerce.userservice.model.Role;
 import com.ecommerce.userservice.model.User;
+import com.ecommerce.userservice.repository.OutboxEventRepository;
 import com.ecommerce.userservice.repository.PasswordResetTokenRepository;
-import com.ecommerce.userservice.repository.RoleRepository;
 import com.ecommerce.userservice.repository.UserRepository;
+import com.ecommerce.userservice.service.RoleRegistry;
+import com.ecommerce.userservice.service.TokenRevocationService;
 import com.ecommerce.userservice.service.UserService;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
-import java.util.List;
-import java.util.UUID;
+import java.util.*;
+import java.util.function.Function;
 
 @Service
 @Transactional
@@ -33,22 +40,23 @@ import java.util.UUID;
 public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
-    private final RoleRepository roleRepository;
+    private final RoleRegistry roleRegistry;
     private final PasswordResetTokenRepository passwordResetTokenRepository;
-    private final ObjectMapper objectMapper;
-    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final EmailEventCodec emailEventCodec;
+    private final OutboxEventRepository outboxEventRepository;
+    private final ReadYourWrites readYourWrites;
+    private final UserDetailsCache userDetailsCache;
+    private final TokenRevocationService tokenRevocationService;
+
+    @Value("${internal.users.batch.max-size:1000}") private int batchMaxSize;
+    @Value("${internal.users.batch.chunk-size:200}") private int batchChunkSize;
 
 
 
 
     @Override
     public UserDTO register(RegisterRequest request) {
-        if(userRepository.existsByEmail(request.email())){
-            throw new BadRequestException("Email already exists");
-        }
-
-        Role role = roleRepository.findByName("ROLE_USER")
-                .orElseThrow(() -> new BadRequestException("Role not found"));
+        Role role = roleRegistry.require("ROLE_USER");
 
         User user = User.builder()
                 .name(request.name())
@@ -56,52 +64,61 @@ public class UserServiceImpl implements UserService {
                 .password(passwordEncoder.encode(request.password()))
                 .roles(List.of(role))
                 .build();
-        SendEmailDto sendEmailDto = new SendEmailDto();
-        sendEmailDto.setFrom("arvind.kumar@test.com");
-        sendEmailDto.setTo(request.email());
-        sendEmailDto.setSubject("User Registration Successful");
-        sendEmailDto.setBody("Hello " + request.name() + ", Your account has been created successfully.");
-
-        String sendEmailDtoString;
+        User saved;
         try {
-            sendEmailDtoString = objectMapper.writeValueAsString(sendEmailDto);
-        } catch (JsonProcessingException e) {
-            throw new RuntimeException(e);
+            // uk_users_email decides duplicates, so concurrent signups cannot both get through a pre-check
+            saved = userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            if (isEmailConflict(e)) {
+                throw new BadRequestException("Email already exists");
+            }
+            throw e;
         }
 
-        kafkaTemplate.send("sendEmail", sendEmailDtoString);
-
-        return toDTO(userRepository.save(user));
+        EncodedEvent event = emailEventCodec.encode(new EmailEvent(
+                "arvind.kumar@test.com",
+                request.email(),
+                "User Registration Successful",
+                "Hello " + request.name() + ", Your account has been created successfully.",
+                Instant.now()));
+        outboxEventRepository.save(new OutboxEvent(null, "sendEmail", request.email(),
+                event.contentType(), event.payload(), Instant.now(), null, null));
+
+        readYourWrites.recordWrite(saved.getEmail());
+        return toDTO(saved);
     }
 
     @Override
     @Transactional(readOnly = true)
     public UserDTO getProfileByEmail(String email) {
-       return userRepository.findByEmail(email).map(this::toDTO)
+       return readYourWrites.read(email, () -> userRepository.findDtoByEmail(email))
                .orElseThrow(() -> new ResourceNotFoundException("User Not found"));
     }
 
     @Override
     public UserDTO updateProfile(String email, UpdateProfileRequest request) {
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new ResourceNotFoundException("User Not found"));
-
         if (request.name() != null && !request.name().isBlank()){
-            user.setName(request.name().trim());
+            if (userRepository.updateName(email, request.name().trim(), Instant.now()) == 0) {
+                throw new ResourceNotFoundException("User Not found");
+            }
+            readYourWrites.recordWrite(email);
+            userDetailsCache.evict(email);
         }
-        return toDTO(user);
+        return userRepository.findDtoByEmail(email)
+                .orElseThrow(() -> new ResourceNotFoundException("User Not found"));
     }
 
     @Override
     public void changePassword(String email, String oldPassword, String newPassword) {
-        User user = userRepository.findByEmail(email)
+        String current = userRepository.findPasswordByEmail(email)
                 .orElseThrow(() -> new ResourceNotFoundException("User Not found"));
 
-        if(!passwordEncoder.matches(oldPassword, user.getPassword())){
+        if(!passwordEncoder.matches(oldPassword, current)){
             throw new BadRequestException("Old password does not match");
         }
-        user.setPassword(passwordEncoder.encode(newPassword));
-
+        userRepository.updatePassword(email, passwordEncoder.encode(newPassword), Instant.now());
+        readYourWrites.recordWrite(email);
+        userDetailsCache.evict(email);
     }
 
     @Override
@@ -124,11 +141,12 @@ public class UserServiceImpl implements UserService {
             throw new BadRequestException("Token expired");
         }
 
-        User user = userRepository.findByEmail(prt.getEmail())
-                .orElseThrow(() -> new ResourceNotFoundException("User Not found"));
-
-        user.setPassword(passwordEncoder.encode(newPassword));
+        if (userRepository.updatePassword(prt.getEmail(), passwordEncoder.encode(newPassword), Instant.now()) == 0) {
+            throw new ResourceNotFoundException("User Not found");
+        }
         passwordResetTokenRepository.delete(prt);
+        readYourWrites.recordWrite(prt.getEmail());
+        userDetailsCache.evict(prt.getEmail());
         }
 
     @Override
@@ -138,6 +156,64 @@ public class UserServiceImpl implements UserService {
         }
     }
 
+    @Override
+    public void deleteAccount(String email) {
+        Instant now = Instant.now();
+        if (userRepository.softDeleteByEmail(email, now) == 0) {
+            throw new ResourceNotFoundException("User Not found");
+        }
+        // stateless authentication never loads the user, so its outstanding tokens are cut off instead
+        tokenRevocationService.revokeAllFor(email, now);
+        readYourWrites.recordWrite(email);
+        userDetailsCache.evict(email);
+    }
+
+    @Override
+    public void deleteUser(Long id) {
+        String email = userRepository.findEmailById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("User Not found"));
+        deleteAccount(email);
+    }
+
+    // no surrounding transaction: each chunk query runs in its own read-only repository
+    // transaction, so with replicas enabled the chunks are served by a replica
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<UserDTO> findUsers(Collection<Long> ids, Collection<String> emails) {
+        List<Long> idKeys = distinct(ids);
+        List<String> emailKeys = distinct(emails);
+        if (idKeys.size() + emailKeys.size() > batchMaxSize) {
+            throw new BadRequestException("At most " + batchMaxSize + " ids and emails per request");
+        }
+        Map<Long, UserDTO> found = new LinkedHashMap<>();
+        loadChunks(idKeys, userRepository::findDtosByIds, found);
+        loadChunks(emailKeys, userRepository::findDtosByEmails, found);
+        return List.copyOf(found.values());
+    }
+
+    private <K> void loadChunks(List<K> keys, Function<List<K>, List<UserDTO>> query, Map<Long, UserDTO> found) {
+        for (int from = 0; from < keys.size(); from += batchChunkSize) {
+            for (UserDTO user : query.apply(keys.subList(from, Math.min(from + batchChunkSize, keys.size())))) {
+                found.putIfAbsent(user.id(), user);
+            }
+        }
+    }
+
+    private static <K> List<K> distinct(Collection<K> keys) {
+        if (keys == null) {
+            return List.of();
+        }
+        Set<K> unique = new LinkedHashSet<>(keys);
+        unique.remove(null);
+        return List.copyOf(unique);
+    }
+
+    private static boolean isEmailConflict(DataIntegrityViolationException e) {
+        return e.getCause() instanceof ConstraintViolationException violation
+                && violation.getConstraintName() != null
+                && violation.getConstraintName().toLowerCase(Locale.ROOT).contains(User.EMAIL_UNIQUE_CONSTRAINT);
+    }
+
     private UserDTO toDTO(User user) {
         return new UserDTO(user.getId(), user.getName(), user.getEmail());
     }
@@ -0,0 +1,119 @@
+package com.ecommerce.userservice.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.jsonwebtoken.Jws;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Date;
+import java.util.function.Function;
+
+/**
+ * Optional cache of verified access tokens keyed by the SHA-256 digest of the compact token,
+ * so repeat calls with the same token skip HMAC verification and claim parsing.
+ * Entries expire at the token's own {@code exp} and the cache is bounded by {@code jwt.cache.max-size}.
+ */
+@Component
+public class VerifiedTokenCache implements MeterBinder {
+
+    public record VerifiedToken(String kid, Claims claims) {}
+
+    @Value("${jwt.cache.enabled:false}") private boolean enabled;
+    @Value("${jwt.cache.max-size:10000}") private long maxSize;
+
+    private Cache<String, VerifiedToken> cache;
+
+    @PostConstruct
+    public void init() {
+        if (!enabled) {
+            return;
+        }
+        cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<String, VerifiedToken>() {
+                    @Override
+                    public long expireAfterCreate(String key, VerifiedToken value, long currentTime) {
+                        Date exp = value.claims().getExpiration();
+                        if (exp == null) {
+                            return 0;
+                        }
+                        return Math.max(0, exp.getTime() - System.currentTimeMillis()) * 1_000_000;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, VerifiedToken value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, VerifiedToken value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (cache != null) {
+            CaffeineCacheMetrics.monitor(registry, cache, "jwt.verified.tokens");
+        }
+    }
+
+    public boolean isEnabled() {
+        return cache != null;
+    }
+
+    public VerifiedToken get(String token, Function<String, Jws<Claims>> verifier) {
+        if (cache == null) {
+            return toVerified(verifier.apply(token));
+        }
+        return cache.get(digest(token), key -> toVerified(verifier.apply(token)));
+    }
+
+    public void invalidate(String token) {
+        if (cache != null) {
+            cache.invalidate(digest(token));
+        }
+    }
+
+    public void invalidateAll() {
+        if (cache != null) {
+            cache.invalidateAll();
+        }
+    }
+
+    public long size() {
+        return cache == null ? 0 : cache.estimatedSize();
+    }
+
+    public CacheStats stats() {
+        return cache == null ? CacheStats.empty() : cache.stats();
+    }
+
+    private static VerifiedToken toVerified(Jws<Claims> jws) {
+        return new VerifiedToken(jws.getHeader().getKeyId(), jws.getPayload());
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
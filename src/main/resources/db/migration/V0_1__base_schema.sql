@@ -0,0 +1,37 @@
+-- Schema previously created by ddl-auto=update, so Flyway can build an empty database on its own.
+-- Sorts before V1 (which seeds roles). Databases baselined at version 1 skip it as below baseline.
+CREATE TABLE IF NOT EXISTS roles (
+    id         BIGINT       NOT NULL AUTO_INCREMENT,
+    name       VARCHAR(255),
+    created_at DATETIME(6),
+    updated_at DATETIME(6),
+    deleted    BIT          NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS users (
+    id         BIGINT       NOT NULL AUTO_INCREMENT,
+    name       VARCHAR(255),
+    email      VARCHAR(255),
+    password   VARCHAR(255),
+    created_at DATETIME(6),
+    updated_at DATETIME(6),
+    deleted    BIT          NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS users_roles (
+    user_id  BIGINT NOT NULL,
+    roles_id BIGINT NOT NULL,
+    CONSTRAINT fk_users_roles_user FOREIGN KEY (user_id) REFERENCES users (id),
+    CONSTRAINT fk_users_roles_role FOREIGN KEY (roles_id) REFERENCES roles (id)
+);
+
+CREATE TABLE IF NOT EXISTS password_reset_token (
+    id         BIGINT       NOT NULL AUTO_INCREMENT,
+    token      VARCHAR(255) NOT NULL,
+    email      VARCHAR(255) NOT NULL,
+    expires_at DATETIME(6)  NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_password_reset_token_token UNIQUE (token)
+);
@@ -0,0 +1,26 @@
+-- Deleted accounts stay in users (email still reserved) until UserArchiver moves them to users_archive.
+ALTER TABLE users ADD COLUMN deleted_at DATETIME(6) NULL;
+
+-- Every lookup now filters on deleted = 0, so the flag leads the listing index; the archiver walks deleted_at.
+DROP INDEX idx_users_created_at_id ON users;
+CREATE INDEX idx_users_deleted_created_at_id ON users (deleted, created_at, id);
+CREATE INDEX idx_users_deleted_deleted_at ON users (deleted, deleted_at);
+
+CREATE TABLE IF NOT EXISTS users_archive (
+    id          BIGINT       NOT NULL,
+    name        VARCHAR(255),
+    email       VARCHAR(255),
+    password    VARCHAR(255),
+    created_at  DATETIME(6),
+    updated_at  DATETIME(6),
+    deleted_at  DATETIME(6),
+    archived_at DATETIME(6)  NOT NULL,
+    PRIMARY KEY (id)
+);
+CREATE INDEX idx_users_archive_email ON users_archive (email);
+
+CREATE TABLE IF NOT EXISTS users_roles_archive (
+    user_id  BIGINT NOT NULL,
+    roles_id BIGINT NOT NULL,
+    PRIMARY KEY (user_id, roles_id)
+);
@@ -0,0 +1,11 @@
+-- Runtime JWT key ring changes, shared by every instance. A row with a NULL secret only records the
+-- activation or retirement of a key that each instance reads from its own configuration (jwt.secret).
+CREATE TABLE IF NOT EXISTS jwt_key (
+    kid          VARCHAR(64)  NOT NULL,
+    secret       VARCHAR(512) NULL,
+    purposes     VARCHAR(32)  NOT NULL,
+    activated_at DATETIME(6)  NULL,
+    retired_at   DATETIME(6)  NULL,
+    created_at   DATETIME(6)  NOT NULL,
+    PRIMARY KEY (kid)
+);
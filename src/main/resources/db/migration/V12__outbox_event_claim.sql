@@ -0,0 +1,3 @@
+-- The relay claims rows with a lease and publishes outside the claiming transaction; an expired lease
+-- (relay crashed or the send was not acknowledged) makes the row claimable again.
+ALTER TABLE outbox_event ADD COLUMN claimed_until DATETIME(6) NULL;
@@ -0,0 +1,3 @@
+-- Deleting an account stores a "sub:<email>" row whose revoked_at is the cutoff for every token issued
+-- to that subject; the key no longer fits the width of a jti.
+ALTER TABLE revoked_token MODIFY jti VARCHAR(320) NOT NULL;
@@ -0,0 +1,10 @@
+CREATE TABLE IF NOT EXISTS outbox_event (
+    id          BIGINT       NOT NULL AUTO_INCREMENT,
+    topic       VARCHAR(255) NOT NULL,
+    message_key VARCHAR(255),
+    payload     LONGTEXT     NOT NULL,
+    created_at  DATETIME(6)  NOT NULL,
+    sent_at     DATETIME(6),
+    PRIMARY KEY (id),
+    INDEX idx_outbox_event_sent_at (sent_at, id)
+);
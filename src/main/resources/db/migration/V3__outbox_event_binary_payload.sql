@@ -0,0 +1,3 @@
+ALTER TABLE outbox_event
+    ADD COLUMN content_type VARCHAR(255) NOT NULL DEFAULT 'application/json' AFTER message_key,
+    MODIFY COLUMN payload LONGBLOB NOT NULL;
@@ -0,0 +1,14 @@
+-- Ids move from AUTO_INCREMENT to Hibernate pooled sequences (emulated with a single-row table on MySQL,
+-- allocation size 50) so inserts can be JDBC-batched. Each sequence starts past the current max id plus
+-- one allocation block; the AUTO_INCREMENT attribute stays on the columns but is no longer used.
+CREATE TABLE IF NOT EXISTS users_seq (next_val BIGINT);
+INSERT INTO users_seq (next_val) SELECT COALESCE(MAX(id), 0) + 51 FROM users;
+
+CREATE TABLE IF NOT EXISTS roles_seq (next_val BIGINT);
+INSERT INTO roles_seq (next_val) SELECT COALESCE(MAX(id), 0) + 51 FROM roles;
+
+CREATE TABLE IF NOT EXISTS password_reset_token_seq (next_val BIGINT);
+INSERT INTO password_reset_token_seq (next_val) SELECT COALESCE(MAX(id), 0) + 51 FROM password_reset_token;
+
+CREATE TABLE IF NOT EXISTS outbox_event_seq (next_val BIGINT);
+INSERT INTO outbox_event_seq (next_val) SELECT COALESCE(MAX(id), 0) + 51 FROM outbox_event;
@@ -0,0 +1,8 @@
+CREATE INDEX idx_password_reset_token_expires_at ON password_reset_token (expires_at);
+
+CREATE TABLE IF NOT EXISTS scheduler_lock (
+    name         VARCHAR(64)  NOT NULL,
+    locked_until DATETIME(6)  NOT NULL,
+    locked_by    VARCHAR(255) NOT NULL,
+    PRIMARY KEY (name)
+);
@@ -0,0 +1,3 @@
+-- Registration inserts directly and relies on this index to reject duplicates.
+-- Fails if duplicate emails already exist; resolve those rows before migrating.
+ALTER TABLE users ADD CONSTRAINT uk_users_email UNIQUE (email);
@@ -0,0 +1,10 @@
+-- Revoked access/refresh token ids; rows are only needed until the token itself expires.
+CREATE TABLE IF NOT EXISTS revoked_token (
+    jti        VARCHAR(64) NOT NULL,
+    expires_at DATETIME(6) NOT NULL,
+    revoked_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (jti)
+);
+
+CREATE INDEX idx_revoked_token_expires_at ON revoked_token (expires_at);
+CREATE INDEX idx_revoked_token_revoked_at ON revoked_token (revoked_at);
@@ -0,0 +1,3 @@
+-- Held by internal callers (order, notification) of /internal/users/**.
+INSERT INTO roles(name, deleted) VALUES ('ROLE_SERVICE', 0)
+ON DUPLICATE KEY UPDATE name = VALUES(name);
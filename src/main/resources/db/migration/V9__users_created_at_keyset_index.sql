@@ -0,0 +1,2 @@
+-- Keyset pagination of GET /admin/users by creation time; id breaks ties between rows created in the same instant.
+CREATE INDEX idx_users_created_at_id ON users (created_at, id);
@@ -0,0 +1,86 @@
+package com.ecommerce.userservice.config;
+
+import com.ecommerce.userservice.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BoundedPasswordEncoderTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private BoundedPasswordEncoder encoder;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        encoder.shutdown();
+    }
+
+    @Test
+    void delegatesOnPool() {
+        PasswordEncoder delegate = mock(PasswordEncoder.class);
+        when(delegate.encode("pass")).thenReturn("hashed");
+        when(delegate.matches("pass", "hashed")).thenReturn(true);
+        encoder = new BoundedPasswordEncoder(delegate, 1, 1, 1000, 1, new SimpleMeterRegistry());
+
+        assertEquals("hashed", encoder.encode("pass"));
+        assertTrue(encoder.matches("pass", "hashed"));
+    }
+
+    @Test
+    void fullQueue_failsFastWithRetryAfter() throws Exception {
+        PasswordEncoder delegate = mock(PasswordEncoder.class);
+        CountDownLatch running = new CountDownLatch(1);
+        when(delegate.encode(any())).thenAnswer(inv -> {
+            running.countDown();
+            release.await();
+            return "hashed";
+        });
+        encoder = new BoundedPasswordEncoder(delegate, 1, 1, 10_000, 3, new SimpleMeterRegistry());
+
+        CompletableFuture.runAsync(() -> encoder.encode("a"));
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+        CompletableFuture.runAsync(() -> encoder.encode("b"));
+        while (encoder.queueDepth() < 1) {
+            Thread.onSpinWait();
+        }
+
+        ServiceUnavailableException e = assertThrows(ServiceUnavailableException.class, () -> encoder.encode("c"));
+        assertEquals(3, e.getRetryAfterSeconds());
+        assertEquals(1, encoder.rejectedCount());
+    }
+
+    @Test
+    void timeout_boundsTheWaitForAThread_notTheHash() throws Exception {
+        PasswordEncoder delegate = mock(PasswordEncoder.class);
+        CountDownLatch running = new CountDownLatch(1);
+        when(delegate.encode("slow")).thenAnswer(inv -> {
+            running.countDown();
+            Thread.sleep(300);
+            return "hashed";
+        });
+        encoder = new BoundedPasswordEncoder(delegate, 1, 1, 100, 1, new SimpleMeterRegistry());
+
+        CompletableFuture<String> slow = CompletableFuture.supplyAsync(() -> encoder.encode("slow"));
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+        // queued behind the slow hash for longer than the timeout, so it gives up and leaves the queue
+        assertThrows(ServiceUnavailableException.class, () -> encoder.encode("queued"));
+        assertEquals(0, encoder.queueDepth());
+
+        assertEquals("hashed", slow.get(5, TimeUnit.SECONDS));
+        assertEquals(1, encoder.rejectedCount());
+        verify(delegate, never()).encode("queued");
+    }
+}
@@ -0,0 +1,130 @@
+package com.ecommerce.userservice.config;
+
+import com.ecommerce.userservice.controller.AuthController;
+import com.ecommerce.userservice.dto.User.UserDTO;
+import com.ecommerce.userservice.model.Role;
+import com.ecommerce.userservice.model.User;
+import com.ecommerce.userservice.repository.JwtKeyRepository;
+import com.ecommerce.userservice.service.JwtKeyRing.Purpose;
+import com.ecommerce.userservice.service.LoginThrottle;
+import com.ecommerce.userservice.service.TokenRevocationService;
+import com.ecommerce.userservice.service.UserService;
+import com.ecommerce.userservice.repository.RoleRepository;
+import com.ecommerce.userservice.service.impl.CredentialsUserDetailsService;
+import com.ecommerce.userservice.service.impl.JpaUserDetailsService;
+import com.ecommerce.userservice.service.impl.JwtKeyRingImpl;
+import com.ecommerce.userservice.service.impl.JwtServiceImpl;
+import com.ecommerce.userservice.service.impl.RoleRegistryImpl;
+import com.ecommerce.userservice.service.impl.VerifiedTokenCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.method.annotation.AuthenticationPrincipalArgumentResolver;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class JwtAuthenticationFilterTest {
+
+    private JwtKeyRingImpl keyRing;
+    private JwtServiceImpl jwtService;
+    private JpaUserDetailsService userDetailsService;
+    private UserService userService;
+    private JwtAuthenticationFilter filter;
+    private MockMvc mvc;
+    private User user;
+
+    @BeforeEach
+    void setup() {
+        keyRing = new JwtKeyRingImpl(mock(JwtKeyRepository.class));
+        ReflectionTestUtils.setField(keyRing, "secret", "0123456789abcdef0123456789abcdef");
+        ReflectionTestUtils.setField(keyRing, "keyId", "default");
+        ReflectionTestUtils.setField(keyRing, "refreshSecret", "");
+        ReflectionTestUtils.setField(keyRing, "refreshKeyId", "refresh");
+        keyRing.init();
+        keyRing = spy(keyRing);
+
+        jwtService = new JwtServiceImpl(keyRing, new VerifiedTokenCache(),
+                new RoleRegistryImpl(mock(RoleRepository.class)), new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(jwtService, "issuer", "user-service");
+        ReflectionTestUtils.setField(jwtService, "accessExpMin", 15L);
+        ReflectionTestUtils.setField(jwtService, "refreshExpDays", 7L);
+        jwtService.init();
+
+        Role role = new Role();
+        role.setName("ROLE_USER");
+        user = User.builder().id(1L).name("A").email("a@a.com").roles(List.of(role)).build();
+
+        userDetailsService = mock(JpaUserDetailsService.class);
+        when(userDetailsService.loadUserByUsername("a@a.com")).thenReturn(user);
+        userService = mock(UserService.class);
+        when(userService.getProfileByEmail("a@a.com")).thenReturn(new UserDTO(1L, "A", "a@a.com"));
+
+        filter = new JwtAuthenticationFilter(jwtService, userDetailsService, mock(TokenRevocationService.class),
+                new SimpleMeterRegistry());
+        AuthController controller = new AuthController(mock(AuthenticationManager.class), jwtService, userService,
+                mock(CredentialsUserDetailsService.class),
+                mock(LoginThrottle.class), mock(TokenRevocationService.class));
+        mvc = MockMvcBuilders.standaloneSetup(controller)
+                .addFilters(filter)
+                .setCustomArgumentResolvers(new AuthenticationPrincipalArgumentResolver())
+                .build();
+    }
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void me_verifiesTokenOnce_databaseMode() throws Exception {
+        String token = jwtService.generateToken(user);
+        clearInvocations(keyRing);
+
+        mvc.perform(get("/auth/me").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.email").value("a@a.com"));
+
+        verify(keyRing, times(1)).verificationKey(eq(Purpose.ACCESS), any());
+        verify(userDetailsService, times(1)).loadUserByUsername("a@a.com");
+    }
+
+    @Test
+    void me_verifiesTokenOnce_statelessMode() throws Exception {
+        ReflectionTestUtils.setField(filter, "statelessAuth", true);
+        String token = jwtService.generateToken(user);
+        clearInvocations(keyRing);
+
+        mvc.perform(get("/auth/me").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk());
+
+        verify(keyRing, times(1)).verificationKey(eq(Purpose.ACCESS), any());
+        verify(userDetailsService, never()).loadUserByUsername(any());
+    }
+
+    @Test
+    void invalidToken_leavesRequestUnauthenticated() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/auth/me");
+        request.addHeader("Authorization", "Bearer not-a-token");
+
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        verify(userDetailsService, never()).loadUserByUsername(any());
+    }
+}
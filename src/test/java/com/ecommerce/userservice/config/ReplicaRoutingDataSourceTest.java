@@ -0,0 +1,105 @@
+package com.ecommerce.userservice.config;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReplicaRoutingDataSourceTest {
+
+    private DataSource primary;
+    private DataSource replica;
+    private ReplicaRoutingDataSource routing;
+    private JdbcTemplate jdbc;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+
+    @BeforeEach
+    void setup() {
+        primary = database("primary");
+        replica = database("replica");
+        new JdbcTemplate(replica).execute("create table heartbeat (lag_seconds bigint)");
+        new JdbcTemplate(replica).update("insert into heartbeat values (0)");
+    }
+
+    private void route(DataSource... replicas) {
+        Map<String, DataSource> byName = new LinkedHashMap<>();
+        for (int i = 0; i < replicas.length; i++) {
+            byName.put("replica-" + i, replicas[i]);
+        }
+        routing = new ReplicaRoutingDataSource(primary, byName, "select lag_seconds from heartbeat", Duration.ofSeconds(2));
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+        jdbc = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    @Test
+    void readOnlyTransactions_goToReplica_othersToPrimary() {
+        route(replica);
+
+        assertEquals("replica", readOnly.execute(status -> source()));
+        assertEquals("primary", readWrite.execute(status -> source()));
+        assertEquals(1, routing.replicaReads());
+    }
+
+    @Test
+    void onPrimary_overridesReadOnlyRouting() {
+        route(replica);
+
+        assertEquals("primary", ReplicaRoutingDataSource.onPrimary(() -> readOnly.execute(status -> source())));
+        assertEquals("replica", readOnly.execute(status -> source()));
+    }
+
+    @Test
+    void unreachableReplica_fallsBackToPrimaryAndLeavesRotation() {
+        JdbcDataSource down = new JdbcDataSource();
+        down.setURL("jdbc:h2:mem:missing-" + UUID.randomUUID() + ";IFEXISTS=TRUE");
+        route(down);
+
+        assertEquals("primary", readOnly.execute(status -> source()));
+        assertFalse(routing.replicaStates().get(0).healthy());
+        assertEquals("primary", readOnly.execute(status -> source()));
+        assertEquals(2, routing.primaryFallbacks());
+    }
+
+    @Test
+    void laggingReplica_isSkippedUntilCaughtUp() {
+        route(replica);
+        new JdbcTemplate(replica).update("update heartbeat set lag_seconds = 30");
+
+        routing.checkReplicas();
+        assertEquals("primary", readOnly.execute(status -> source()));
+        assertEquals(30L, routing.replicaStates().get(0).lagSeconds());
+
+        new JdbcTemplate(replica).update("update heartbeat set lag_seconds = 1");
+        routing.checkReplicas();
+        assertEquals("replica", readOnly.execute(status -> source()));
+    }
+
+    private String source() {
+        return jdbc.queryForObject("select name from source", String.class);
+    }
+
+    private static DataSource database(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + "-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("create table source (name varchar(16))");
+        jdbc.update("insert into source values (?)", name);
+        return dataSource;
+    }
+}
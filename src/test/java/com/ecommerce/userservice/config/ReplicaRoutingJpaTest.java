@@ -0,0 +1,92 @@
+package com.ecommerce.userservice.config;
+
+import com.ecommerce.userservice.model.RevokedToken;
+import com.ecommerce.userservice.model.User;
+import com.ecommerce.userservice.repository.RevokedTokenRepository;
+import com.ecommerce.userservice.repository.UserRepository;
+import com.ecommerce.userservice.service.UserService;
+import com.ecommerce.userservice.service.impl.JpaUserDetailsService;
+import com.ecommerce.userservice.service.impl.TokenRevocationServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Routing as seen through JPA: the "replica" is a second pool on the same in-memory database,
+ * so the data is there and only {@link ReplicaRoutingDataSource#replicaReads()} tells the pools apart.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:replica-routing;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "datasource.replicas.enabled=true",
+        "datasource.replicas.urls=jdbc:h2:mem:replica-routing;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "datasource.replicas.lag-query=",
+        "user-details.cache.enabled=false"
+})
+@ActiveProfiles("test")
+class ReplicaRoutingJpaTest {
+
+    @Autowired private ReplicaRoutingDataSource routing;
+    @Autowired private UserRepository userRepository;
+    @Autowired private JpaUserDetailsService userDetailsService;
+    @Autowired private UserService userService;
+    @Autowired private RevokedTokenRepository revokedTokenRepository;
+    @Autowired private TokenRevocationServiceImpl tokenRevocationService;
+    @Autowired private PlatformTransactionManager transactionManager;
+
+    private User user;
+
+    @BeforeEach
+    void setup() {
+        user = userRepository.findByEmail("routed@example.com").orElseGet(() -> userRepository.save(User.builder()
+                .name("Routed").email("routed@example.com").password("hash").roles(List.of()).build()));
+    }
+
+    @Test
+    void repositoryReadsOutsideServiceTransactions_goToReplica() {
+        assertReplicaRead(() -> userRepository.findByEmail("routed@example.com"));
+        assertReplicaRead(() -> userDetailsService.loadUserByUsername("routed@example.com"));
+        assertReplicaRead(() -> userRepository.findDtosByIds(List.of(user.getId())));
+        assertReplicaRead(() -> userService.findUsers(List.of(user.getId()), List.of()));
+    }
+
+    @Test
+    void writes_stayOnPrimary() {
+        long before = routing.replicaReads();
+
+        userRepository.save(User.builder().name("Other").email("other-" + System.nanoTime() + "@example.com")
+                .password("hash").roles(List.of()).build());
+
+        assertEquals(before, routing.replicaReads());
+    }
+
+    @Test
+    void revocationConfirmation_readsPrimary() {
+        String jti = "routed-" + System.nanoTime();
+        revokedTokenRepository.save(new RevokedToken(jti, Instant.now().plusSeconds(60), Instant.now()));
+        tokenRevocationService.rebuild();
+        long before = routing.replicaReads();
+
+        // even when the caller is inside a read-only transaction that would otherwise use a replica
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        Boolean revoked = readOnly.execute(status -> tokenRevocationService.isRevoked(jti));
+
+        assertEquals(Boolean.TRUE, revoked);
+        assertEquals(before, routing.replicaReads());
+    }
+
+    private void assertReplicaRead(Runnable read) {
+        long before = routing.replicaReads();
+        read.run();
+        assertEquals(before + 1, routing.replicaReads());
+    }
+}
@@ -0,0 +1,243 @@
+package com.ecommerce.userservice.controller;
+
+import com.ecommerce.userservice.model.Role;
+import com.ecommerce.userservice.repository.RoleRepository;
+import com.ecommerce.userservice.repository.UserRepository;
+import com.ecommerce.userservice.service.RoleRegistry;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Fails the build when an /auth endpoint starts issuing more SQL than it does today. Counts are
+ * JDBC statements prepared by Hibernate for one request; lower them here when a change removes a query.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class AuthEndpointQueryCountTest {
+
+    private static final String PASSWORD = "secret-password";
+    private static final AtomicInteger USERS = new AtomicInteger();
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private ObjectMapper objectMapper;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+    @Autowired private RoleRepository roleRepository;
+    @Autowired private RoleRegistry roleRegistry;
+    @Autowired private UserRepository userRepository;
+    @Autowired private PasswordEncoder passwordEncoder;
+    @Autowired private PlatformTransactionManager transactionManager;
+
+    private Statistics statistics;
+    private String email;
+
+    @BeforeEach
+    void setup() throws Exception {
+        if (roleRepository.findByName("ROLE_USER").isEmpty()) {
+            Role role = new Role();
+            role.setName("ROLE_USER");
+            roleRepository.save(role);
+            roleRegistry.refresh();
+        }
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        // the pooled optimizer reads each sequence twice on first use; after that registrations never hit one
+        if (USERS.get() == 0) {
+            register();
+        }
+        email = register();
+        statistics.clear();
+    }
+
+    @Test
+    void register_isOneInsertPerRowAndNoReads() throws Exception {
+        register();
+
+        // users, users_roles, outbox_event
+        assertStatements(3);
+    }
+
+    @Test
+    void register_duplicateEmail_isOneInsertAttempt() throws Exception {
+        mockMvc.perform(post("/auth/register").contentType(MediaType.APPLICATION_JSON)
+                        .content(json("{\"name\":\"Dup\",\"email\":\"%s\",\"password\":\"%s\"}", email, PASSWORD)))
+                .andExpect(status().isBadRequest());
+
+        assertStatements(1);
+    }
+
+    @Test
+    void login_isOneUserQuery() throws Exception {
+        login();
+
+        // user with roles in one join
+        assertStatements(1);
+    }
+
+    @Test
+    void login_checksThePasswordAgainstTheDatabase_notTheCachedPrincipal() throws Exception {
+        authenticated();
+        // changed on another replica: this one keeps the cached principal until the broadcast arrives
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                userRepository.updatePassword(email, passwordEncoder.encode("new-password"), Instant.now()));
+
+        mockMvc.perform(post("/auth/login").contentType(MediaType.APPLICATION_JSON)
+                        .content(json("{\"email\":\"%s\",\"password\":\"%s\"}", email, PASSWORD)))
+                .andExpect(status().is4xxClientError());
+        mockMvc.perform(post("/auth/login").contentType(MediaType.APPLICATION_JSON)
+                        .content(json("{\"email\":\"%s\",\"password\":\"new-password\"}", email)))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void deletedOnAnotherReplica_cachedPrincipalNeitherLogsInNorRefreshes() throws Exception {
+        JsonNode tokens = authenticated();
+        // no cutoff or eviction reaches this replica; only the database knows the account is gone
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                userRepository.softDeleteByEmail(email, Instant.now()));
+
+        mockMvc.perform(post("/auth/login").contentType(MediaType.APPLICATION_JSON)
+                        .content(json("{\"email\":\"%s\",\"password\":\"%s\"}", email, PASSWORD)))
+                .andExpect(status().is4xxClientError());
+        mockMvc.perform(post("/auth/refresh").contentType(MediaType.APPLICATION_JSON)
+                        .content(json("{\"refreshToken\":\"%s\"}", tokens.get("refreshToken").asText())))
+                .andExpect(status().is4xxClientError());
+    }
+
+    @Test
+    void refresh_isOneUserQuery() throws Exception {
+        String refreshToken = login().get("refreshToken").asText();
+        statistics.clear();
+
+        mockMvc.perform(post("/auth/refresh").contentType(MediaType.APPLICATION_JSON)
+                        .content(json("{\"refreshToken\":\"%s\"}", refreshToken)))
+                .andExpect(status().isOk());
+
+        // the account is re-read on the primary, never taken from the cache
+        assertStatements(1);
+    }
+
+    @Test
+    void me_isOneQueryForProfile() throws Exception {
+        String accessToken = authenticated().get("accessToken").asText();
+
+        mockMvc.perform(get("/auth/me").header("Authorization", "Bearer " + accessToken))
+                .andExpect(status().isOk());
+
+        // JwtAuthenticationFilter finds the user cached by the first request; getProfileByEmail selects the DTO projection
+        assertStatements(1);
+    }
+
+    @Test
+    void updateProfile_isTargetedUpdateWithoutEntityLoad() throws Exception {
+        String accessToken = authenticated().get("accessToken").asText();
+
+        mockMvc.perform(patch("/auth/profile").header("Authorization", "Bearer " + accessToken)
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"name\":\"Renamed\"}"))
+                .andExpect(status().isOk());
+
+        // one UPDATE of name/updated_at and one projection select; the filter's user comes from the cache
+        assertStatements(2);
+        assertEquals(0, statistics.getEntityUpdateCount(), "entities flushed by dirty checking");
+    }
+
+    @Test
+    void logout_isOneInsert_andReplayedTokenCostsNoLookup() throws Exception {
+        String accessToken = authenticated().get("accessToken").asText();
+
+        mockMvc.perform(post("/auth/logout").header("Authorization", "Bearer " + accessToken))
+                .andExpect(status().isNoContent());
+        // the revoked_token insert; the filter's user comes from the cache
+        assertStatements(1);
+        statistics.clear();
+
+        // this instance revoked it, so the Bloom filter hit is already confirmed; the user is never loaded
+        mockMvc.perform(get("/auth/me").header("Authorization", "Bearer " + accessToken))
+                .andExpect(status().isUnauthorized());
+        assertStatements(0);
+    }
+
+    @Test
+    void deleteAccount_isOneUpdatePlusRevocation_andHidesTheUser() throws Exception {
+        JsonNode tokens = authenticated();
+        String accessToken = tokens.get("accessToken").asText();
+
+        mockMvc.perform(delete("/auth/me").header("Authorization", "Bearer " + accessToken))
+                .andExpect(status().isNoContent());
+        // the soft-delete UPDATE and the revoked_token upsert of the account's cutoff
+        assertStatements(2);
+
+        // every token issued before the deletion is cut off, and this instance already knows the cutoff
+        statistics.clear();
+        mockMvc.perform(get("/auth/me").header("Authorization", "Bearer " + accessToken))
+                .andExpect(status().isUnauthorized());
+        assertStatements(0);
+        mockMvc.perform(post("/auth/refresh").contentType(MediaType.APPLICATION_JSON)
+                        .content(json("{\"refreshToken\":\"%s\"}", tokens.get("refreshToken").asText())))
+                .andExpect(status().isUnauthorized());
+
+        // the flagged row is filtered out of the login lookup and the email stays reserved
+        mockMvc.perform(post("/auth/login").contentType(MediaType.APPLICATION_JSON)
+                        .content(json("{\"email\":\"%s\",\"password\":\"%s\"}", email, PASSWORD)))
+                .andExpect(status().is4xxClientError());
+        mockMvc.perform(post("/auth/register").contentType(MediaType.APPLICATION_JSON)
+                        .content(json("{\"name\":\"Again\",\"email\":\"%s\",\"password\":\"%s\"}", email, PASSWORD)))
+                .andExpect(status().isBadRequest());
+    }
+
+    private String register() throws Exception {
+        String next = "user" + USERS.incrementAndGet() + "@example.com";
+        mockMvc.perform(post("/auth/register").contentType(MediaType.APPLICATION_JSON)
+                        .content(json("{\"name\":\"User\",\"email\":\"%s\",\"password\":\"%s\"}", next, PASSWORD)))
+                .andExpect(status().isOk());
+        return next;
+    }
+
+    // logs in and makes one authenticated request, so the filter's principal is cached as in steady state
+    private JsonNode authenticated() throws Exception {
+        JsonNode tokens = login();
+        mockMvc.perform(get("/auth/me").header("Authorization", "Bearer " + tokens.get("accessToken").asText()))
+                .andExpect(status().isOk());
+        statistics.clear();
+        return tokens;
+    }
+
+    private JsonNode login() throws Exception {
+        String body = mockMvc.perform(post("/auth/login").contentType(MediaType.APPLICATION_JSON)
+                        .content(json("{\"email\":\"%s\",\"password\":\"%s\"}", email, PASSWORD)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body);
+    }
+
+    private void assertStatements(long expected) {
+        assertEquals(expected, statistics.getPrepareStatementCount(), "SQL statements prepared");
+    }
+
+    private static String json(String template, Object... args) {
+        return template.formatted(args);
+    }
+}
@@ -0,0 +1,77 @@
+package com.ecommerce.userservice.event;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.time.Instant;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmailEventCodecTest {
+
+    private final EmailEvent event = new EmailEvent("from@test.com", "to@test.com", "Welcome",
+            "Hello A, Your account has been created successfully.", Instant.ofEpochMilli(1_700_000_000_000L));
+
+    @Test
+    void binary_roundTrip_isSmallerThanJson() {
+        EmailEventCodec binary = codec("binary");
+        EmailEventCodec json = codec("json");
+
+        EncodedEvent encoded = binary.encode(event);
+
+        assertEquals(EmailEventCodec.CONTENT_TYPE_BINARY, encoded.contentType());
+        assertEquals(event, binary.decode(encoded.payload()));
+        assertTrue(encoded.payload().length < json.encode(event).payload().length);
+    }
+
+    @Test
+    void json_keepsLegacyPayload() {
+        EmailEventCodec json = codec("json");
+
+        EncodedEvent encoded = json.encode(event);
+
+        assertEquals(EmailEventCodec.CONTENT_TYPE_JSON, encoded.contentType());
+        assertTrue(new String(encoded.payload()).contains("\"to\":\"to@test.com\""));
+        assertEquals("to@test.com", json.decode(encoded.payload()).to());
+    }
+
+    @Test
+    void binary_skipsUnknownTags() {
+        byte[] known = EmailEventCodec.toBinary(event);
+        ByteArrayOutputStream withExtra = new ByteArrayOutputStream();
+        withExtra.writeBytes(known);
+        withExtra.write(42);
+        withExtra.write(3);
+        withExtra.writeBytes(new byte[]{7, 7, 7});
+
+        assertEquals(event, EmailEventCodec.fromBinary(withExtra.toByteArray()));
+    }
+
+    @Test
+    void binary_honoursFieldLengths() {
+        EmailEvent withoutTime = new EmailEvent(event.from(), event.to(), event.subject(), event.body(), null);
+        ByteArrayOutputStream wideTime = new ByteArrayOutputStream();
+        wideTime.writeBytes(EmailEventCodec.toBinary(withoutTime));
+        wideTime.write(5);
+        wideTime.write(12);
+        wideTime.writeBytes(new byte[12]);
+        wideTime.write(42);
+        wideTime.write(1);
+        wideTime.write(7);
+
+        assertEquals(withoutTime, EmailEventCodec.fromBinary(wideTime.toByteArray()));
+
+        byte[] truncated = EmailEventCodec.toBinary(event);
+        byte[] cut = Arrays.copyOf(truncated, truncated.length - 3);
+        assertThrows(IllegalArgumentException.class, () -> EmailEventCodec.fromBinary(cut));
+    }
+
+    private EmailEventCodec codec(String format) {
+        EmailEventCodec codec = new EmailEventCodec(new ObjectMapper());
+        ReflectionTestUtils.setField(codec, "format", format);
+        return codec;
+    }
+}
@@ -0,0 +1,241 @@
+package com.ecommerce.userservice.service.impl;
+
+import com.ecommerce.userservice.exception.BadRequestException;
+import com.ecommerce.userservice.model.AuthenticatedUser;
+import com.ecommerce.userservice.model.JwtKey;
+import com.ecommerce.userservice.model.Role;
+import com.ecommerce.userservice.model.User;
+import com.ecommerce.userservice.repository.JwtKeyRepository;
+import com.ecommerce.userservice.repository.RoleRepository;
+import com.ecommerce.userservice.service.JwtKeyRing;
+import com.ecommerce.userservice.service.JwtKeyRing.Purpose;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class JwtServiceImplTest {
+
+    private static final String SECRET = "0123456789abcdef0123456789abcdef";
+    private static final String ROTATED = "fedcba9876543210fedcba9876543210";
+
+    private final Map<String, JwtKey> keyTable = new HashMap<>();
+    private JwtKeyRingImpl keyRing;
+    private SimpleMeterRegistry meterRegistry;
+    private JwtServiceImpl service;
+
+    @BeforeEach
+    void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        keyRing = keyRing("");
+        service = service(keyRing);
+    }
+
+    @Test
+    void accessToken_roundTrip() {
+        String token = service.generateToken("a@a.com");
+        assertEquals("a@a.com", service.extractUserName(token));
+    }
+
+    @Test
+    void accessToken_carriesIdAndRoles() {
+        Role role = new Role();
+        role.setName("ROLE_USER");
+        User user = User.builder().id(7L).email("a@a.com").roles(List.of(role)).build();
+
+        AuthenticatedUser principal = service.principalFrom(service.verifyAccessToken(service.generateToken(user)));
+
+        assertEquals(7L, principal.id());
+        assertEquals("a@a.com", principal.getUsername());
+        assertEquals("ROLE_USER", principal.getAuthorities().iterator().next().getAuthority());
+    }
+
+    @Test
+    void tokens_carryUniqueJti() {
+        String first = service.verifyAccessToken(service.generateToken("a@a.com")).getId();
+        String second = service.verifyAccessToken(service.generateToken("a@a.com")).getId();
+        String refresh = service.verifyRefreshToken(service.rotateRefreshToken("a@a.com")).getId();
+
+        assertNotNull(first);
+        assertNotEquals(first, second);
+        assertNotEquals(first, refresh);
+    }
+
+    @Test
+    void signAndVerify_areTimed() {
+        String token = service.generateToken("a@a.com");
+        service.verifyAccessToken(token);
+        assertThrows(JwtException.class, () -> service.verifyAccessToken(token + "x"));
+
+        assertEquals(1, meterRegistry.get("auth.jwt.sign").tag("type", "access").timer().count());
+        assertEquals(1, meterRegistry.get("auth.jwt.verify").tags("type", "access", "outcome", "success").timer().count());
+        assertEquals(1, meterRegistry.get("auth.jwt.verify").tags("type", "access", "outcome", "failure").timer().count());
+    }
+
+    @Test
+    void tokenWithoutRoles_hasNoClaimsPrincipal() {
+        assertNull(service.principalFrom(service.verifyAccessToken(service.generateToken("a@a.com"))));
+    }
+
+    @Test
+    void rotation_keepsOldTokensValidUntilRetired() {
+        String before = service.generateToken("a@a.com");
+
+        keyRing.addKey("k2", ROTATED, EnumSet.allOf(Purpose.class));
+        keyRing.activate("k2");
+        String after = service.generateToken("a@a.com");
+
+        assertEquals("a@a.com", service.extractUserName(before));
+        assertEquals("a@a.com", service.extractUserName(after));
+
+        keyRing.retireKey("default");
+        assertThrows(JwtException.class, () -> service.extractUserName(before));
+        assertEquals("a@a.com", service.extractUserName(after));
+    }
+
+    @Test
+    void keyChanges_reachOtherInstancesThroughTheKeyTable() {
+        JwtKeyRingImpl otherRing = keyRing("");
+        JwtServiceImpl other = service(otherRing);
+        ReflectionTestUtils.setField(keyRing, "refreshIntervalMillis", 60_000L);
+        keyRing.addKey("k2", ROTATED, EnumSet.allOf(Purpose.class));
+        keyRing.activate("k2");
+
+        // the activation waits a refresh interval, so no instance signs with k2 before the others can verify it
+        assertEquals("default", keyRing.signingKey(Purpose.ACCESS).kid());
+        otherRing.reload();
+        assertEquals(List.of("default", "k2"), otherRing.keys().stream().map(JwtKeyRing.KeyInfo::kid).toList());
+        keyTable.get("k2").setActivatedAt(Instant.now());
+        keyRing.reload();
+        String rotated = service.generateToken("a@a.com");
+        assertEquals("a@a.com", other.extractUserName(rotated));
+        otherRing.reload();
+        assertEquals("k2", otherRing.signingKey(Purpose.ACCESS).kid());
+
+        keyRing.retireKey("default");
+        JwtKeyRingImpl restarted = keyRing("");
+        assertEquals(List.of("k2"), restarted.keys().stream().map(JwtKeyRing.KeyInfo::kid).toList());
+        assertEquals("k2", restarted.signingKey(Purpose.REFRESH).kid());
+    }
+
+    @Test
+    void unknownKeyId_isRejectedWithoutTouchingTheKeyTable() {
+        JwtKeyRepository repository = (JwtKeyRepository) ReflectionTestUtils.getField(keyRing, "jwtKeyRepository");
+        clearInvocations(repository);
+
+        for (int i = 0; i < 100; i++) {
+            String kid = "made-up-" + i;
+            assertThrows(JwtException.class, () -> keyRing.verificationKey(Purpose.ACCESS, kid));
+        }
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void retiredKeyId_cannotBeReused() {
+        keyRing.addKey("k2", ROTATED, EnumSet.allOf(Purpose.class));
+        keyRing.retireKey("k2");
+
+        assertThrows(BadRequestException.class, () -> keyRing.addKey("k2", ROTATED, EnumSet.allOf(Purpose.class)));
+    }
+
+    @Test
+    void retireActiveKey_throws() {
+        assertThrows(BadRequestException.class, () -> keyRing.retireKey("default"));
+    }
+
+    @Test
+    void separateRefreshKey_isNotAcceptedAsAccessToken() {
+        JwtServiceImpl split = service(keyRing(ROTATED));
+
+        String refresh = split.rotateRefreshToken("a@a.com");
+        String access = split.generateToken("a@a.com");
+
+        assertEquals("a@a.com", split.validateRefreshToken(refresh));
+        assertThrows(JwtException.class, () -> split.extractUserName(refresh));
+        assertThrows(JwtException.class, () -> split.validateRefreshToken(access));
+    }
+
+    @Test
+    void tokenCache_skipsRepeatVerification() {
+        VerifiedTokenCache cache = new VerifiedTokenCache();
+        ReflectionTestUtils.setField(cache, "enabled", true);
+        ReflectionTestUtils.setField(cache, "maxSize", 100L);
+        cache.init();
+        JwtServiceImpl cached = service(keyRing, cache);
+        String token = cached.generateToken("a@a.com");
+
+        cached.verifyAccessToken(token);
+        cached.verifyAccessToken(token);
+
+        assertEquals(1, cache.stats().missCount());
+        assertEquals(1, cache.stats().hitCount());
+    }
+
+    @Test
+    void tokenCache_rejectsTokensOfRetiredKeys() {
+        VerifiedTokenCache cache = new VerifiedTokenCache();
+        ReflectionTestUtils.setField(cache, "enabled", true);
+        ReflectionTestUtils.setField(cache, "maxSize", 100L);
+        cache.init();
+        JwtServiceImpl cached = service(keyRing, cache);
+        String token = cached.generateToken("a@a.com");
+        cached.verifyAccessToken(token);
+
+        keyRing.addKey("k2", ROTATED, EnumSet.allOf(Purpose.class));
+        keyRing.activate("k2");
+        keyRing.retireKey("default");
+
+        assertThrows(JwtException.class, () -> cached.verifyAccessToken(token));
+    }
+
+    private JwtKeyRingImpl keyRing(String refreshSecret) {
+        JwtKeyRingImpl ring = new JwtKeyRingImpl(keyRepository());
+        ReflectionTestUtils.setField(ring, "secret", SECRET);
+        ReflectionTestUtils.setField(ring, "keyId", "default");
+        ReflectionTestUtils.setField(ring, "refreshSecret", refreshSecret);
+        ReflectionTestUtils.setField(ring, "refreshKeyId", "refresh");
+        ring.init();
+        return ring;
+    }
+
+    /** Every ring built by this test shares one key table, like instances sharing the database. */
+    private JwtKeyRepository keyRepository() {
+        JwtKeyRepository repository = mock(JwtKeyRepository.class);
+        when(repository.findAll()).thenAnswer(invocation -> keyTable.values().stream()
+                .map(k -> new JwtKey(k.getKid(), k.getSecret(), k.getPurposes(), k.getActivatedAt(), k.getRetiredAt(),
+                        k.getCreatedAt()))
+                .toList());
+        when(repository.existsById(anyString())).thenAnswer(invocation -> keyTable.containsKey(invocation.<String>getArgument(0)));
+        when(repository.findById(anyString())).thenAnswer(invocation ->
+                Optional.ofNullable(keyTable.get(invocation.<String>getArgument(0))));
+        when(repository.save(any(JwtKey.class))).thenAnswer(invocation -> {
+            JwtKey key = invocation.getArgument(0);
+            keyTable.put(key.getKid(), key);
+            return key;
+        });
+        return repository;
+    }
+
+    private JwtServiceImpl service(JwtKeyRingImpl ring) {
+        return service(ring, new VerifiedTokenCache());
+    }
+
+    private JwtServiceImpl service(JwtKeyRingImpl ring, VerifiedTokenCache cache) {
+        JwtServiceImpl jwt = new JwtServiceImpl(ring, cache, new RoleRegistryImpl(mock(RoleRepository.class)),
+                meterRegistry);
+        ReflectionTestUtils.setField(jwt, "issuer", "user-service");
+        ReflectionTestUtils.setField(jwt, "accessExpMin", 15L);
+        ReflectionTestUtils.setField(jwt, "refreshExpDays", 7L);
+        jwt.init();
+        return jwt;
+    }
+}
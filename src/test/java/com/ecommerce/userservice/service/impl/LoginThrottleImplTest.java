@@ -0,0 +1,132 @@
+package com.ecommerce.userservice.service.impl;
+
+import com.ecommerce.userservice.dto.Admin.LoginThrottleSettings;
+import com.ecommerce.userservice.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoginThrottleImplTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000_000L);
+    private LoginThrottleImpl throttle;
+
+    @BeforeEach
+    void setup() {
+        throttle = new LoginThrottleImpl(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(throttle, "enabled", true);
+        ReflectionTestUtils.setField(throttle, "maxPerEmail", 3);
+        ReflectionTestUtils.setField(throttle, "maxPerIp", 5);
+        ReflectionTestUtils.setField(throttle, "window", Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(throttle, "maxKeys", 1000L);
+        throttle.clock = now::get;
+        throttle.init();
+    }
+
+    @Test
+    void perEmailLimit_rejectsUntilWindowSlidesPast() {
+        for (int i = 0; i < 3; i++) {
+            throttle.acquire("A@example.com", "10.0.0." + i);
+        }
+
+        TooManyRequestsException e = assertThrows(TooManyRequestsException.class,
+                () -> throttle.acquire("a@example.com ", "10.0.0.9"));
+        assertTrue(e.getRetryAfterSeconds() >= 1);
+
+        // half a window later the previous window still weighs 3 * 0.5 = 1.5 attempts
+        now.addAndGet(Duration.ofSeconds(90).toMillis());
+        throttle.acquire("a@example.com", "10.0.0.9");
+        assertEquals(1, throttle.stats().rejectedByEmail());
+    }
+
+    @Test
+    void perIpLimit_spansAccounts_andSuccessOnlyClearsEmail() {
+        for (int i = 0; i < 5; i++) {
+            throttle.acquire("user" + i + "@example.com", "10.0.0.1");
+        }
+        assertThrows(TooManyRequestsException.class, () -> throttle.acquire("other@example.com", "10.0.0.1"));
+        throttle.acquire("other@example.com", "10.0.0.2");
+
+        throttle.acquire("user0@example.com", "10.0.0.3");
+        throttle.acquire("user0@example.com", "10.0.0.3");
+        throttle.onSuccess("user0@example.com");
+        throttle.acquire("user0@example.com", "10.0.0.3");
+        assertEquals(1, throttle.stats().rejectedByIp());
+    }
+
+    @Test
+    void concurrentAttempts_neverExceedTheLimit() throws Exception {
+        int threads = 16;
+        int rounds = 200;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            for (int round = 0; round < rounds; round++) {
+                String email = "race" + round + "@example.com";
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<Boolean>> results = new ArrayList<>();
+                for (int i = 0; i < threads; i++) {
+                    String ip = "10." + round / 250 + "." + round % 250 + "." + i;
+                    results.add(executor.submit(() -> {
+                        start.await();
+                        try {
+                            throttle.acquire(email, ip);
+                            return true;
+                        } catch (TooManyRequestsException e) {
+                            return false;
+                        }
+                    }));
+                }
+                start.countDown();
+
+                int rejected = 0;
+                for (Future<Boolean> result : results) {
+                    if (!result.get(10, TimeUnit.SECONDS)) {
+                        rejected++;
+                    }
+                }
+                assertEquals(threads - 3, rejected, "round " + round);
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals((threads - 3) * rounds, throttle.stats().rejectedByEmail());
+    }
+
+    @Test
+    void rejectionByEmail_doesNotCountAgainstTheAddress() {
+        for (int i = 0; i < 3; i++) {
+            throttle.acquire("a@example.com", "10.0.0.1");
+        }
+        for (int i = 0; i < 5; i++) {
+            assertThrows(TooManyRequestsException.class, () -> throttle.acquire("a@example.com", "10.0.0.1"));
+        }
+
+        throttle.acquire("b@example.com", "10.0.0.1");
+        throttle.acquire("b@example.com", "10.0.0.1");
+        assertThrows(TooManyRequestsException.class, () -> throttle.acquire("c@example.com", "10.0.0.1"));
+        assertEquals(1, throttle.stats().rejectedByIp());
+    }
+
+    @Test
+    void update_appliesWithoutRestart() {
+        for (int i = 0; i < 3; i++) {
+            throttle.acquire("a@example.com", "10.0.0.1");
+        }
+        throttle.update(new LoginThrottleSettings(true, 10, 50, Duration.ofMinutes(1)));
+        throttle.acquire("a@example.com", "10.0.0.1");
+
+        throttle.update(new LoginThrottleSettings(false, 1, 1, Duration.ofMinutes(1)));
+        for (int i = 0; i < 20; i++) {
+            throttle.acquire("a@example.com", "10.0.0.1");
+        }
+    }
+}
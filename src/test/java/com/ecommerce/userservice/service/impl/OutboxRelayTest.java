@@ -0,0 +1,129 @@
+package com.ecommerce.userservice.service.impl;
+
+import com.ecommerce.userservice.model.OutboxEvent;
+import com.ecommerce.userservice.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.data.domain.Limit;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class OutboxRelayTest {
+
+    private static EmbeddedKafkaBroker broker;
+
+    private OutboxEventRepository repository;
+    private PlatformTransactionManager transactionManager;
+    private KafkaTemplate<String, byte[]> kafkaTemplate;
+    private OutboxRelay relay;
+
+    @BeforeAll
+    static void startBroker() {
+        broker = new EmbeddedKafkaKraftBroker(1, 1, "sendEmail");
+        broker.afterPropertiesSet();
+    }
+
+    @AfterAll
+    static void stopBroker() {
+        broker.destroy();
+    }
+
+    @BeforeEach
+    void setup() {
+        Map<String, Object> producerProps = KafkaTestUtils.producerProps(broker);
+        kafkaTemplate = new KafkaTemplate<>(
+                new DefaultKafkaProducerFactory<>(producerProps, new StringSerializer(), new ByteArraySerializer()));
+        repository = mock(OutboxEventRepository.class);
+        transactionManager = mock(PlatformTransactionManager.class);
+        relay = new OutboxRelay(repository, kafkaTemplate, new TransactionTemplate(transactionManager),
+                new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(relay, "batchSize", 10);
+        ReflectionTestUtils.setField(relay, "sendTimeoutMillis", 10_000L);
+        ReflectionTestUtils.setField(relay, "lease", Duration.ofSeconds(60));
+        ReflectionTestUtils.setField(relay, "retention", Duration.ofHours(24));
+        ReflectionTestUtils.setField(relay, "pruneChunkSize", 100);
+    }
+
+    @Test
+    void publishPending_claimsThenPublishesOutsideTheTransactionThenMarksSent() {
+        when(repository.findClaimableForUpdate(any(Instant.class), any(Limit.class))).thenReturn(List.of(
+                new OutboxEvent(1L, "sendEmail", "a@a.com", "application/json", "{\"to\":\"a@a.com\"}".getBytes(), Instant.now(), null, null),
+                new OutboxEvent(2L, "sendEmail", "b@b.com", "application/json", "{\"to\":\"b@b.com\"}".getBytes(), Instant.now(), null, null)));
+
+        int published = relay.publishPending();
+
+        assertEquals(2, published);
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<Long>> ids = ArgumentCaptor.forClass(Collection.class);
+        InOrder order = inOrder(transactionManager, repository);
+        order.verify(transactionManager).getTransaction(any());
+        order.verify(repository).findClaimableForUpdate(any(Instant.class), any(Limit.class));
+        order.verify(repository).claim(eq(List.of(1L, 2L)), any(Instant.class));
+        order.verify(transactionManager).commit(any());
+        order.verify(transactionManager).getTransaction(any());
+        order.verify(repository).markSent(ids.capture(), any(Instant.class));
+        order.verify(transactionManager).commit(any());
+        assertEquals(Set.of(1L, 2L), Set.copyOf(ids.getValue()));
+        assertEquals(2, relay.sentCount());
+
+        Map<String, Object> consumerProps = KafkaTestUtils.consumerProps("outbox-test", "true", broker);
+        try (Consumer<String, String> consumer = new DefaultKafkaConsumerFactory<>(consumerProps,
+                new StringDeserializer(), new StringDeserializer()).createConsumer()) {
+            broker.consumeFromAnEmbeddedTopic(consumer, "sendEmail");
+            ConsumerRecords<String, String> records = KafkaTestUtils.getRecords(consumer, Duration.ofSeconds(10), 2);
+            assertEquals(2, records.count());
+            records.forEach(record -> {
+                assertNotNull(record.key());
+                assertEquals("application/json",
+                        new String(record.headers().lastHeader(OutboxRelay.CONTENT_TYPE_HEADER).value()));
+            });
+        }
+    }
+
+    @Test
+    void publishPending_emptyOutbox_sendsNothing() {
+        when(repository.findClaimableForUpdate(any(Instant.class), any(Limit.class))).thenReturn(List.of());
+
+        assertEquals(0, relay.publishPending());
+        verify(repository, never()).claim(any(), any());
+        verify(repository, never()).markSent(any(), any());
+    }
+
+    @Test
+    void prune_deletesInChunksUntilDrained() {
+        when(repository.deleteSentBefore(any(Instant.class), eq(100))).thenReturn(100, 100, 7);
+
+        relay.prune();
+
+        verify(repository, times(3)).deleteSentBefore(any(Instant.class), eq(100));
+    }
+}
@@ -0,0 +1,58 @@
+package com.ecommerce.userservice.service.impl;
+
+import com.ecommerce.userservice.repository.PasswordResetTokenRepository;
+import com.ecommerce.userservice.service.SchedulerLockService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class PasswordResetTokenSweeperTest {
+
+    private PasswordResetTokenRepository repository;
+    private SchedulerLockService lockService;
+    private PasswordResetTokenSweeper sweeper;
+
+    @BeforeEach
+    void setup() {
+        repository = mock(PasswordResetTokenRepository.class);
+        lockService = mock(SchedulerLockService.class);
+        sweeper = new PasswordResetTokenSweeper(repository, lockService,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)));
+        ReflectionTestUtils.setField(sweeper, "chunkSize", 2);
+        ReflectionTestUtils.setField(sweeper, "lease", Duration.ofMinutes(5));
+    }
+
+    @Test
+    void deletesInChunksUntilShortChunk() {
+        when(lockService.tryLock(eq(PasswordResetTokenSweeper.LOCK_NAME), any())).thenReturn(true);
+        when(repository.deleteExpiredBefore(any(Instant.class), eq(2))).thenReturn(2, 2, 1);
+
+        sweeper.sweep();
+
+        verify(repository, times(3)).deleteExpiredBefore(any(Instant.class), eq(2));
+        verify(lockService).unlock(PasswordResetTokenSweeper.LOCK_NAME);
+        assertEquals(5, sweeper.purgedCount());
+        assertEquals(5, sweeper.lastRunPurged());
+    }
+
+    @Test
+    void skipsWhenAnotherInstanceHoldsLease() {
+        when(lockService.tryLock(eq(PasswordResetTokenSweeper.LOCK_NAME), any())).thenReturn(false);
+
+        sweeper.sweep();
+
+        verifyNoInteractions(repository);
+        verify(lockService, never()).unlock(any());
+        assertEquals(1, sweeper.skippedCount());
+    }
+}
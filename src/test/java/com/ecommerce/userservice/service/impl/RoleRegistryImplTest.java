@@ -0,0 +1,59 @@
+package com.ecommerce.userservice.service.impl;
+
+import com.ecommerce.userservice.exception.BadRequestException;
+import com.ecommerce.userservice.model.Role;
+import com.ecommerce.userservice.model.User;
+import com.ecommerce.userservice.repository.RoleRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class RoleRegistryImplTest {
+
+    private RoleRepository roleRepository;
+    private RoleRegistryImpl registry;
+
+    @BeforeEach
+    void setup() {
+        roleRepository = mock(RoleRepository.class);
+        when(roleRepository.findAll()).thenReturn(List.of(role(1L, "ROLE_USER"), role(2L, "ROLE_ADMIN")));
+        registry = new RoleRegistryImpl(roleRepository);
+        registry.init();
+    }
+
+    @Test
+    void handsOutSharedImmutableAuthorities() {
+        Role role = registry.require("ROLE_USER");
+        User user = User.builder().email("a@a.com").roles(List.of(role)).build();
+
+        GrantedAuthority authority = registry.authority("ROLE_USER");
+        assertInstanceOf(SimpleGrantedAuthority.class, authority);
+        assertSame(authority, user.getAuthorities().iterator().next());
+        assertSame(user.getAuthorities(), user.getAuthorities());
+        assertSame(registry.authority("ROLE_LEGACY"), registry.authority("ROLE_LEGACY"));
+        List<?> claim = new ArrayList<>(List.of("ROLE_USER", "ROLE_ADMIN"));
+        assertSame(registry.authorities(claim), registry.authorities(new ArrayList<>(claim)));
+        assertSame(authority, registry.authorities(claim).get(0));
+        verify(roleRepository, times(1)).findAll();
+    }
+
+    @Test
+    void unknownRole_reloadsOnceThenFails() {
+        assertThrows(BadRequestException.class, () -> registry.require("ROLE_MISSING"));
+        verify(roleRepository, times(2)).findAll();
+    }
+
+    private static Role role(Long id, String name) {
+        Role role = new Role();
+        role.setId(id);
+        role.setName(name);
+        return role;
+    }
+}
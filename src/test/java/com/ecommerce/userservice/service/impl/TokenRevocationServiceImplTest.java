@@ -0,0 +1,177 @@
+package com.ecommerce.userservice.service.impl;
+
+import com.ecommerce.userservice.repository.RevokedTokenRepository;
+import com.ecommerce.userservice.service.SchedulerLockService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class TokenRevocationServiceImplTest {
+
+    private RevokedTokenRepository repository;
+    private TokenRevocationServiceImpl service;
+
+    @BeforeEach
+    void setup() {
+        repository = mock(RevokedTokenRepository.class);
+        when(repository.findActiveJtis(any())).thenReturn(List.of("revoked-at-startup"));
+        service = new TokenRevocationServiceImpl(repository, mock(SchedulerLockService.class),
+                new TransactionTemplate(new NoOpTransactionManager()));
+        ReflectionTestUtils.setField(service, "expectedEntries", 1000L);
+        ReflectionTestUtils.setField(service, "falsePositiveRate", 0.001);
+        ReflectionTestUtils.setField(service, "confirmedMaxSize", 100L);
+        ReflectionTestUtils.setField(service, "refreshExpDays", 7L);
+        ReflectionTestUtils.setField(service, "negativeTtl", Duration.ofMinutes(1));
+        service.init();
+    }
+
+    @Test
+    void unknownJti_neverReachesDatabase() {
+        for (int i = 0; i < 100; i++) {
+            assertFalse(service.isRevoked("token-" + i));
+        }
+        assertFalse(service.isRevoked((String) null));
+
+        verify(repository, never()).findActiveExpiresAt(any(), any());
+    }
+
+    @Test
+    void revoke_isVisibleLocallyWithoutAnotherQuery() {
+        service.revoke(claims("jti-1"));
+
+        assertTrue(service.isRevoked("jti-1"));
+        verify(repository).insertIfAbsent(eq("jti-1"), any(), any());
+        verify(repository, never()).findActiveExpiresAt(any(), any());
+    }
+
+    @Test
+    void filterHitForExpiredRow_isNotRevoked_andRemembered() {
+        assertFalse(service.isRevoked("revoked-at-startup"));
+        assertFalse(service.isRevoked("revoked-at-startup"));
+        verify(repository, times(1)).findActiveExpiresAt(eq("revoked-at-startup"), any());
+    }
+
+    @Test
+    void rememberedMiss_isDroppedWhenTheKeyIsRevoked() {
+        when(repository.findActiveJtis(any())).thenReturn(List.of("jti-reused", "sub:a@a.com"));
+        service.rebuild();
+        Instant deletedAt = Instant.now();
+        assertFalse(service.isRevoked("jti-reused"));
+        assertFalse(service.isRevoked(claims("jti-2", deletedAt.minusSeconds(60))));
+
+        // revoked on another replica: the next sync reports both keys
+        when(repository.findJtisRevokedSince(any(), any())).thenReturn(List.of("jti-reused", "sub:a@a.com"));
+        when(repository.findActiveExpiresAt(eq("jti-reused"), any()))
+                .thenReturn(Optional.of(Instant.now().plusSeconds(60)));
+        when(repository.findActiveRevokedAt(eq("sub:a@a.com"), any())).thenReturn(Optional.of(deletedAt));
+        service.sync();
+
+        assertTrue(service.isRevoked("jti-reused"));
+        assertTrue(service.isRevoked(claims("jti-2", deletedAt.minusSeconds(60))));
+        verify(repository, times(2)).findActiveExpiresAt(eq("jti-reused"), any());
+        verify(repository, times(2)).findActiveRevokedAt(eq("sub:a@a.com"), any());
+    }
+
+    @Test
+    void rememberedMiss_isDroppedByALocalRevocation() {
+        when(repository.findActiveJtis(any())).thenReturn(List.of("sub:a@a.com"));
+        service.rebuild();
+        Instant deletedAt = Instant.now();
+        assertFalse(service.isRevoked(claims("jti-2", deletedAt.minusSeconds(60))));
+
+        service.revokeAllFor("a@a.com", deletedAt);
+
+        assertTrue(service.isRevoked(claims("jti-2", deletedAt.minusSeconds(60))));
+    }
+
+    @Test
+    void sync_picksUpOtherReplicasRevocations_andRemembersThemUntilExpiry() throws Exception {
+        when(repository.findJtisRevokedSince(any(), any())).thenReturn(List.of("jti-elsewhere", "jti-expiring"));
+        when(repository.findActiveExpiresAt(eq("jti-elsewhere"), any()))
+                .thenReturn(Optional.of(Instant.now().plusSeconds(60)));
+        when(repository.findActiveExpiresAt(eq("jti-expiring"), any()))
+                .thenReturn(Optional.of(Instant.now().plusMillis(50)), Optional.empty());
+
+        service.sync();
+
+        for (int i = 0; i < 3; i++) {
+            assertTrue(service.isRevoked("jti-elsewhere"));
+        }
+        verify(repository, times(1)).findActiveExpiresAt(eq("jti-elsewhere"), any());
+
+        assertTrue(service.isRevoked("jti-expiring"));
+        Thread.sleep(100);
+        assertFalse(service.isRevoked("jti-expiring"));
+    }
+
+    @Test
+    void revokeAllFor_cutsOffTokensIssuedBefore_withoutAnotherQuery() {
+        Instant deletedAt = Instant.now();
+
+        service.revokeAllFor("a@a.com", deletedAt);
+
+        assertTrue(service.isRevoked(claims("jti-2", deletedAt.minusSeconds(60))));
+        assertFalse(service.isRevoked(claims("jti-3", deletedAt.plusSeconds(1))));
+        assertFalse(service.isRevoked(Jwts.claims().id("jti-4").subject("b@b.com")
+                .issuedAt(Date.from(deletedAt.minusSeconds(60))).build()));
+        verify(repository).upsert("sub:a@a.com", deletedAt.plus(Duration.ofDays(7)), deletedAt);
+        verify(repository, never()).findActiveRevokedAt(any(), any());
+    }
+
+    @Test
+    void sync_picksUpOtherReplicasCutoffs() {
+        Instant deletedAt = Instant.now();
+        when(repository.findJtisRevokedSince(any(), any())).thenReturn(List.of("sub:a@a.com"));
+        when(repository.findActiveRevokedAt(eq("sub:a@a.com"), any())).thenReturn(Optional.of(deletedAt));
+
+        service.sync();
+
+        assertTrue(service.isRevoked(claims("jti-2", deletedAt.minusSeconds(60))));
+        assertTrue(service.isRevoked(claims("jti-3", deletedAt.minusSeconds(30))));
+        verify(repository, times(1)).findActiveRevokedAt(eq("sub:a@a.com"), any());
+    }
+
+    private static Claims claims(String jti, Instant issuedAt) {
+        return Jwts.claims().id(jti).subject("a@a.com").issuedAt(Date.from(issuedAt))
+                .expiration(Date.from(Instant.now().plusSeconds(60))).build();
+    }
+
+    private static Claims claims(String jti) {
+        return Jwts.claims().id(jti).subject("a@a.com").expiration(Date.from(Instant.now().plusSeconds(60))).build();
+    }
+
+    private static class NoOpTransactionManager extends AbstractPlatformTransactionManager {
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+        }
+    }
+}
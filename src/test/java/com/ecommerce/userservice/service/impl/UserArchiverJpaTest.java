@@ -0,0 +1,103 @@
+package com.ecommerce.userservice.service.impl;
+
+import com.ecommerce.userservice.model.Role;
+import com.ecommerce.userservice.model.User;
+import com.ecommerce.userservice.repository.RoleRepository;
+import com.ecommerce.userservice.repository.UserRepository;
+import com.ecommerce.userservice.service.SchedulerLockService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/** Runs the archiver's native SQL against H2; the archive tables only exist in the Flyway migrations. */
+@DataJpaTest
+@TestPropertySource(properties = {"spring.flyway.enabled=false",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class UserArchiverJpaTest {
+
+    @Autowired private UserRepository userRepository;
+    @Autowired private RoleRepository roleRepository;
+    @Autowired private PlatformTransactionManager transactionManager;
+    @Autowired private DataSource dataSource;
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setup() {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("create table if not exists users_archive (id bigint primary key, name varchar(255), "
+                + "email varchar(255), password varchar(255), created_at timestamp(6), updated_at timestamp(6), "
+                + "deleted_at timestamp(6), archived_at timestamp(6) not null)");
+        jdbcTemplate.execute("create table if not exists users_roles_archive (user_id bigint not null, "
+                + "roles_id bigint not null, primary key (user_id, roles_id))");
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Test
+    void archive_movesOnlyAccountsDeletedBeforeRetention_withTheirRoleLinks() {
+        Role role = new Role();
+        role.setName("ROLE_ARCHIVE_" + System.nanoTime());
+        Role saved = roleRepository.save(role);
+        String suffix = System.nanoTime() + "@example.com";
+        Long old1 = save("old1-" + suffix, saved);
+        Long old2 = save("old2-" + suffix, saved);
+        Long recent = save("recent-" + suffix, saved);
+        Long live = save("live-" + suffix, saved);
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        transactionTemplate.executeWithoutResult(status -> {
+            userRepository.softDeleteByEmail("old1-" + suffix, now.minus(Duration.ofDays(40)));
+            userRepository.softDeleteByEmail("old2-" + suffix, now.minus(Duration.ofDays(31)));
+            userRepository.softDeleteByEmail("recent-" + suffix, now.minus(Duration.ofDays(1)));
+        });
+
+        SchedulerLockService lockService = mock(SchedulerLockService.class);
+        when(lockService.tryLock(eq(UserArchiver.LOCK_NAME), any())).thenReturn(true);
+        UserArchiver archiver = new UserArchiver(userRepository, lockService, transactionTemplate);
+        ReflectionTestUtils.setField(archiver, "retention", Duration.ofDays(30));
+        ReflectionTestUtils.setField(archiver, "chunkSize", 1);
+        ReflectionTestUtils.setField(archiver, "lease", Duration.ofMinutes(5));
+
+        archiver.archive();
+
+        assertEquals(2, archiver.lastRunArchived());
+        assertEquals(List.of("old1-" + suffix, "old2-" + suffix), jdbcTemplate.queryForList(
+                "select email from users_archive where id in (?, ?) and archived_at is not null order by id",
+                String.class, old1, old2));
+        assertEquals(now.minus(Duration.ofDays(40)), jdbcTemplate.queryForObject(
+                "select deleted_at from users_archive where id = ?", Timestamp.class, old1).toInstant());
+        assertEquals(List.of(old1, old2), jdbcTemplate.queryForList(
+                "select user_id from users_roles_archive where roles_id = ? order by user_id", Long.class, saved.getId()));
+        assertEquals(List.of(recent, live), jdbcTemplate.queryForList(
+                "select id from users where id in (?, ?, ?, ?) order by id", Long.class, old1, old2, recent, live));
+        assertEquals(List.of(recent, live), jdbcTemplate.queryForList(
+                "select user_id from users_roles where roles_id = ? order by user_id", Long.class, saved.getId()));
+    }
+
+    private Long save(String email, Role role) {
+        return userRepository.save(User.builder().name("Archived").email(email).password("hash")
+                .roles(List.of(role)).build()).getId();
+    }
+}
@@ -0,0 +1,68 @@
+package com.ecommerce.userservice.service.impl;
+
+import com.ecommerce.userservice.repository.UserRepository;
+import com.ecommerce.userservice.service.SchedulerLockService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class UserArchiverTest {
+
+    private UserRepository repository;
+    private SchedulerLockService lockService;
+    private UserArchiver archiver;
+
+    @BeforeEach
+    void setup() {
+        repository = mock(UserRepository.class);
+        lockService = mock(SchedulerLockService.class);
+        archiver = new UserArchiver(repository, lockService, new TransactionTemplate(mock(PlatformTransactionManager.class)));
+        ReflectionTestUtils.setField(archiver, "retention", Duration.ofDays(30));
+        ReflectionTestUtils.setField(archiver, "chunkSize", 2);
+        ReflectionTestUtils.setField(archiver, "lease", Duration.ofMinutes(5));
+    }
+
+    @Test
+    void movesChunksUntilShortChunk_copyingBeforeDeleting() {
+        when(lockService.tryLock(eq(UserArchiver.LOCK_NAME), any())).thenReturn(true);
+        when(repository.findDeletedBefore(any(Instant.class), eq(2))).thenReturn(List.of(1L, 2L)).thenReturn(List.of(3L));
+
+        Instant before = Instant.now();
+        archiver.archive();
+
+        verify(repository, times(2)).findDeletedBefore(argThat(cutoff ->
+                !cutoff.isAfter(before.minus(Duration.ofDays(30)).plusSeconds(5))), eq(2));
+        InOrder order = inOrder(repository);
+        order.verify(repository).copyToArchive(eq(List.of(1L, 2L)), any(Instant.class));
+        order.verify(repository).copyRoleLinksToArchive(List.of(1L, 2L));
+        order.verify(repository).deleteRoleLinks(List.of(1L, 2L));
+        order.verify(repository).deleteArchived(List.of(1L, 2L));
+        verify(repository).deleteArchived(List.of(3L));
+        verify(lockService).unlock(UserArchiver.LOCK_NAME);
+        assertEquals(3, archiver.archivedCount());
+        assertEquals(3, archiver.lastRunArchived());
+    }
+
+    @Test
+    void skipsWhenAnotherInstanceHoldsLease() {
+        when(lockService.tryLock(eq(UserArchiver.LOCK_NAME), any())).thenReturn(false);
+
+        archiver.archive();
+
+        verifyNoInteractions(repository);
+        verify(lockService, never()).unlock(any());
+        assertEquals(1, archiver.skippedCount());
+    }
+}
@@ -0,0 +1,196 @@
+package com.ecommerce.userservice.service.impl;
+
+import com.ecommerce.userservice.config.ReadYourWrites;
+import com.ecommerce.userservice.model.User;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.KafkaMessageListenerContainer;
+import org.springframework.kafka.listener.MessageListener;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+import org.springframework.kafka.test.utils.ContainerTestUtils;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserDetailsCacheTest {
+
+    private static final String TOPIC = "user-details-invalidation";
+
+    private static EmbeddedKafkaBroker broker;
+
+    private final List<KafkaMessageListenerContainer<String, byte[]>> containers = new ArrayList<>();
+    private final List<UserDetailsCache> caches = new ArrayList<>();
+
+    @BeforeAll
+    static void startBroker() {
+        broker = new EmbeddedKafkaKraftBroker(1, 1, TOPIC);
+        broker.afterPropertiesSet();
+    }
+
+    @AfterAll
+    static void stopBroker() {
+        broker.destroy();
+    }
+
+    @AfterEach
+    void teardown() {
+        containers.forEach(KafkaMessageListenerContainer::stop);
+        caches.forEach(UserDetailsCache::shutdown);
+    }
+
+    @Test
+    void get_concurrentMissesForOneEmail_loadOnce() throws Exception {
+        UserDetailsCache cache = cache(false);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        try {
+            List<Future<UserDetails>> results = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                results.add(executor.submit(() -> cache.get("a@a.com", email -> {
+                    loads.incrementAndGet();
+                    await(release);
+                    return user(email);
+                })));
+            }
+            Thread.sleep(200);
+            release.countDown();
+            UserDetails first = results.get(0).get(5, TimeUnit.SECONDS);
+            for (Future<UserDetails> result : results) {
+                assertSame(first, result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void evict_doesNotWaitForInFlightLoad_andDropsIt() throws Exception {
+        UserDetailsCache cache = cache(false);
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<UserDetails> inFlight = executor.submit(() -> cache.get("a@a.com", email -> {
+                loading.countDown();
+                await(release);
+                return user(email);
+            }));
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+            assertTimeoutPreemptively(Duration.ofSeconds(1), () -> cache.evict("a@a.com"));
+            release.countDown();
+            UserDetails stale = inFlight.get(5, TimeUnit.SECONDS);
+
+            assertNotSame(stale, cache.get("a@a.com", this::user));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void groupId_isStablePerInstance() {
+        UserDetailsCache cache = cache(false);
+        assertEquals(cache.getGroupId(), cache(false).getGroupId());
+
+        ReflectionTestUtils.setField(cache, "configuredInstanceId", "pod-1");
+        assertEquals("UserService-user-details-pod-1", cache.getGroupId());
+    }
+
+    @Test
+    void evict_insideTransaction_waitsForCommit() {
+        UserDetailsCache cache = cache(false);
+        UserDetails cached = cache.get("a@a.com", this::user);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            cache.evict("a@a.com");
+            assertSame(cached, cache.get("a@a.com", this::user));
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertNotSame(cached, cache.get("a@a.com", this::user));
+    }
+
+    @Test
+    void evict_isBroadcastToOtherReplicas() throws Exception {
+        UserDetailsCache replicaA = cache(true);
+        UserDetailsCache replicaB = cache(true);
+        listen(replicaB, "replica-b");
+        replicaA.get("b@b.com", this::user);
+        UserDetails cachedOnB = replicaB.get("b@b.com", this::user);
+
+        replicaA.evict("b@b.com");
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (replicaB.size() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+        }
+        assertNotSame(cachedOnB, replicaB.get("b@b.com", this::user));
+    }
+
+    private UserDetailsCache cache(boolean broadcast) {
+        KafkaTemplate<String, byte[]> kafkaTemplate = new KafkaTemplate<>(new DefaultKafkaProducerFactory<>(
+                KafkaTestUtils.producerProps(broker), new StringSerializer(), new ByteArraySerializer()));
+        UserDetailsCache cache = new UserDetailsCache(kafkaTemplate, new ReadYourWrites());
+        ReflectionTestUtils.setField(cache, "enabled", true);
+        ReflectionTestUtils.setField(cache, "maxSize", 100L);
+        ReflectionTestUtils.setField(cache, "ttl", Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(cache, "topic", TOPIC);
+        ReflectionTestUtils.setField(cache, "broadcast", broadcast);
+        ReflectionTestUtils.setField(cache, "applicationName", "UserService");
+        cache.init();
+        caches.add(cache);
+        return cache;
+    }
+
+    // stands in for the @KafkaListener container Spring builds for each replica
+    private void listen(UserDetailsCache cache, String group) {
+        Map<String, Object> consumerProps = KafkaTestUtils.consumerProps(group, "true", broker);
+        ContainerProperties containerProperties = new ContainerProperties(TOPIC);
+        containerProperties.setMessageListener((MessageListener<String, byte[]>) cache::onInvalidation);
+        KafkaMessageListenerContainer<String, byte[]> container = new KafkaMessageListenerContainer<>(
+                new DefaultKafkaConsumerFactory<>(consumerProps, new StringDeserializer(), new ByteArrayDeserializer()),
+                containerProperties);
+        container.start();
+        containers.add(container);
+        ContainerTestUtils.waitForAssignment(container, broker.getPartitionsPerTopic());
+    }
+
+    private UserDetails user(String email) {
+        return User.builder().email(email).roles(List.of()).build();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.ecommerce.userservice.service.impl;
+
+import com.ecommerce.userservice.dto.Admin.ImportError;
+import com.ecommerce.userservice.dto.Admin.ImportSummary;
+import com.ecommerce.userservice.model.Role;
+import com.ecommerce.userservice.model.User;
+import com.ecommerce.userservice.repository.RoleRepository;
+import com.ecommerce.userservice.repository.UserRepository;
+import com.ecommerce.userservice.service.RoleRegistry;
+import com.ecommerce.userservice.service.UserImportService.Format;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@DataJpaTest
+@TestPropertySource(properties = {"spring.flyway.enabled=false",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class UserImportConflictTest {
+
+    @Autowired private UserRepository userRepository;
+    @Autowired private RoleRepository roleRepository;
+    @Autowired private PlatformTransactionManager transactionManager;
+    @Autowired private EntityManager entityManager;
+
+    @Test
+    void signupBetweenDuplicateCheckAndInsert_failsOnlyThatRow() throws Exception {
+        Role role = new Role();
+        role.setName("ROLE_USER");
+        Role saved = roleRepository.save(role);
+        RoleRegistry roleRegistry = mock(RoleRegistry.class);
+        when(roleRegistry.require("ROLE_USER")).thenReturn(saved);
+        PasswordEncoder passwordEncoder = mock(PasswordEncoder.class);
+        when(passwordEncoder.encode(any())).thenReturn("hashed");
+
+        // the conflicting account lands right after the duplicate check has cleared the chunk
+        UserRepository racing = mock(UserRepository.class, delegatesTo(userRepository));
+        doAnswer(invocation -> {
+            userRepository.save(User.builder().name("Racer").email("b@b.com").password("hashed")
+                    .roles(List.of(saved)).build());
+            return Set.of();
+        }).when(racing).findExistingEmails(anyCollection());
+
+        UserImportServiceImpl service = new UserImportServiceImpl(racing, roleRegistry, passwordEncoder,
+                new ObjectMapper(), new TransactionTemplate(transactionManager), entityManager);
+        List<ImportError> errors = new ArrayList<>();
+        String body = """
+                {"name":"A","email":"a@b.com","password":"p"}
+                {"name":"B","email":"b@b.com","password":"p"}
+                {"name":"C","email":"c@b.com","password":"p"}
+                """;
+
+        ImportSummary summary = service.importUsers(
+                new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), Format.NDJSON, errors::add);
+
+        assertEquals(new ImportSummary(3, 2, 1), summary);
+        assertEquals(List.of(new ImportError(2, "b@b.com", "Email already exists")), errors);
+        assertEquals(Set.of("a@b.com", "b@b.com", "c@b.com"),
+                userRepository.findExistingEmails(List.of("a@b.com", "b@b.com", "c@b.com")));
+    }
+}
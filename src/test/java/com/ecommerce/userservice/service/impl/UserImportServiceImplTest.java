@@ -0,0 +1,152 @@
+package com.ecommerce.userservice.service.impl;
+
+import com.ecommerce.userservice.dto.Admin.ImportError;
+import com.ecommerce.userservice.dto.Admin.ImportSummary;
+import com.ecommerce.userservice.exception.ServiceUnavailableException;
+import com.ecommerce.userservice.model.Role;
+import com.ecommerce.userservice.model.User;
+import com.ecommerce.userservice.repository.UserRepository;
+import com.ecommerce.userservice.service.RoleRegistry;
+import com.ecommerce.userservice.service.UserImportService.Format;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+class UserImportServiceImplTest {
+
+    private static final String HASH = "$2a$10$abcdefghijklmnopqrstuuJ0a3mZ6ZbqJ4f5HkqVQyQ7yB2dYkq7K";
+
+    private UserRepository userRepository;
+    private PasswordEncoder passwordEncoder;
+    private UserImportServiceImpl service;
+    private final List<ImportError> errors = new ArrayList<>();
+
+    @BeforeEach
+    void setup() {
+        userRepository = mock(UserRepository.class);
+        RoleRegistry roleRegistry = mock(RoleRegistry.class);
+        passwordEncoder = mock(PasswordEncoder.class);
+        Role role = new Role();
+        role.setName("ROLE_USER");
+        when(roleRegistry.require("ROLE_USER")).thenReturn(role);
+        when(passwordEncoder.encode(anyString())).thenReturn("hashed");
+        when(userRepository.findExistingEmails(anyCollection())).thenReturn(Set.of());
+
+        service = new UserImportServiceImpl(userRepository, roleRegistry, passwordEncoder, new ObjectMapper(),
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), mock(EntityManager.class));
+        ReflectionTestUtils.setField(service, "chunkSize", 2);
+        ReflectionTestUtils.setField(service, "hashingThreads", 2);
+        ReflectionTestUtils.setField(service, "hashAttempts", 3);
+    }
+
+    @Test
+    void ndjson_importsInChunks() throws Exception {
+        String body = """
+                {"name":"A","email":"a@a.com","password":"p"}
+                {"name":"B","email":"b@b.com","password_hash":"%s"}
+                {"name":"C","email":"c@c.com","password":"p"}
+                """.formatted(HASH);
+
+        ImportSummary summary = service.importUsers(stream(body), Format.NDJSON, errors::add);
+
+        assertEquals(new ImportSummary(3, 3, 0), summary);
+        verify(userRepository, times(2)).findExistingEmails(anyCollection());
+        verify(userRepository, times(2)).saveAllAndFlush(anyList());
+        verify(passwordEncoder, times(2)).encode("p");
+    }
+
+    @Test
+    void csv_reportsBadAndDuplicateRecordsWithoutAborting() throws Exception {
+        when(userRepository.findExistingEmails(anyCollection())).thenReturn(Set.of("taken@a.com"));
+        String body = """
+                name,email,password
+                A,a@a.com,p
+                B,a@a.com,p
+                "Smith, J",taken@a.com,p
+                ,nobody@a.com,p
+                D,d@d.com,p
+                """;
+
+        ImportSummary summary = service.importUsers(stream(body), Format.CSV, errors::add);
+
+        assertEquals(new ImportSummary(5, 2, 3), summary);
+        assertEquals(List.of(3L, 4L, 5L), errors.stream().map(ImportError::line).sorted().toList());
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<User>> saved = ArgumentCaptor.forClass(List.class);
+        verify(userRepository, atLeastOnce()).saveAllAndFlush(saved.capture());
+        assertEquals(List.of("a@a.com", "d@d.com"),
+                saved.getAllValues().stream().flatMap(List::stream).map(User::getEmail).toList());
+    }
+
+    @Test
+    void chunkPasswords_areHashedConcurrently() throws Exception {
+        // neither hash returns until both are in flight
+        CountDownLatch bothStarted = new CountDownLatch(2);
+        when(passwordEncoder.encode(anyString())).thenAnswer(invocation -> {
+            bothStarted.countDown();
+            return bothStarted.await(5, TimeUnit.SECONDS) ? "hashed" : null;
+        });
+        String body = """
+                {"name":"A","email":"a@a.com","password":"p1"}
+                {"name":"B","email":"b@b.com","password":"p2"}
+                """;
+
+        ImportSummary summary = service.importUsers(stream(body), Format.NDJSON, errors::add);
+
+        assertEquals(new ImportSummary(2, 2, 0), summary);
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<User>> saved = ArgumentCaptor.forClass(List.class);
+        verify(userRepository).saveAllAndFlush(saved.capture());
+        assertEquals(List.of("hashed", "hashed"), saved.getValue().stream().map(User::getPassword).toList());
+    }
+
+    @Test
+    void busyHashingPool_isRetried_andOnlyPersistentRejectionsAreReportedPerRow() throws Exception {
+        ServiceUnavailableException busy = new ServiceUnavailableException("Password hashing is saturated", 0);
+        when(passwordEncoder.encode("busy-once")).thenThrow(busy).thenReturn("hashed");
+        when(passwordEncoder.encode("busy")).thenThrow(busy);
+        when(passwordEncoder.encode("too-long")).thenThrow(new IllegalArgumentException("password cannot be more than 72 bytes"));
+        String body = """
+                {"name":"A","email":"a@a.com","password":"busy"}
+                {"name":"B","email":"b@b.com","password":"too-long"}
+                {"name":"C","email":"c@c.com","password":"busy-once"}
+                """;
+
+        ImportSummary summary = service.importUsers(stream(body), Format.NDJSON, errors::add);
+
+        assertEquals(new ImportSummary(3, 1, 2), summary);
+        assertEquals(List.of("a@a.com", "b@b.com"), errors.stream().map(ImportError::email).toList());
+        verify(passwordEncoder, times(3)).encode("busy");
+        verify(passwordEncoder, times(2)).encode("busy-once");
+    }
+
+    @Test
+    void malformedJson_isReported() throws Exception {
+        ImportSummary summary = service.importUsers(stream("{not json}\n"), Format.NDJSON, errors::add);
+
+        assertEquals(new ImportSummary(1, 0, 1), summary);
+        assertEquals("Malformed record", errors.get(0).error());
+    }
+
+    private static ByteArrayInputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,89 @@
+package com.ecommerce.userservice.service.impl;
+
+import com.ecommerce.userservice.dto.Admin.UserListItem;
+import com.ecommerce.userservice.dto.Admin.UserPageResponse;
+import com.ecommerce.userservice.exception.BadRequestException;
+import com.ecommerce.userservice.repository.UserRepository;
+import com.ecommerce.userservice.service.UserListingService.Order;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class UserListingServiceImplTest {
+
+    private static final Instant T0 = Instant.parse("2025-01-01T00:00:00Z");
+
+    private UserRepository userRepository;
+    private JdbcTemplate jdbcTemplate;
+    private UserListingServiceImpl service;
+
+    @BeforeEach
+    void setup() {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("create table users (id bigint primary key, name varchar(255), email varchar(255), "
+                + "created_at timestamp(6), deleted boolean default false not null)");
+
+        userRepository = mock(UserRepository.class);
+        service = new UserListingServiceImpl(userRepository, jdbcTemplate);
+        ReflectionTestUtils.setField(service, "maxPageSize", 3);
+        ReflectionTestUtils.setField(service, "exportFetchSize", 2);
+    }
+
+    @Test
+    void list_fullPage_returnsCursorThatSeeksPastLastRow() {
+        when(userRepository.findPageAfterCreatedAt(Instant.EPOCH, 0, Limit.of(3)))
+                .thenReturn(List.of(item(1, T0), item(2, T0), item(3, T0.plusSeconds(1))));
+        when(userRepository.findPageAfterCreatedAt(T0, 2, Limit.of(3))).thenReturn(List.of(item(3, T0.plusSeconds(1))));
+
+        UserPageResponse first = service.list(null, 2, Order.CREATED_AT);
+        assertEquals(List.of(1L, 2L), first.users().stream().map(UserListItem::id).toList());
+        assertNotNull(first.nextCursor());
+
+        // the cursor carries the order, so the parameter on later pages does not matter
+        UserPageResponse second = service.list(first.nextCursor(), 2, Order.ID);
+        assertEquals(List.of(3L), second.users().stream().map(UserListItem::id).toList());
+        assertNull(second.nextCursor());
+        verify(userRepository, never()).findPageAfterId(anyLong(), any());
+    }
+
+    @Test
+    void list_rejectsBadLimitAndCursor() {
+        assertThrows(BadRequestException.class, () -> service.list(null, 0, Order.ID));
+        assertThrows(BadRequestException.class, () -> service.list(null, 4, Order.ID));
+        assertThrows(BadRequestException.class, () -> service.list("not-a-cursor", 2, Order.ID));
+    }
+
+    @Test
+    void export_streamsEveryLiveRowInIdOrder() {
+        for (int id = 5; id >= 1; id--) {
+            jdbcTemplate.update("insert into users values (?, ?, ?, ?, false)", id, "User " + id, "u" + id + "@example.com",
+                    Timestamp.from(T0.plusSeconds(id)));
+        }
+        jdbcTemplate.update("insert into users values (6, 'Gone', 'gone@example.com', ?, true)", Timestamp.from(T0));
+        List<UserListItem> exported = new ArrayList<>();
+
+        long count = service.export(exported::add);
+
+        assertEquals(5, count);
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L), exported.stream().map(UserListItem::id).toList());
+        assertEquals(T0.plusSeconds(3), exported.get(2).createdAt());
+    }
+
+    private static UserListItem item(long id, Instant createdAt) {
+        return new UserListItem(id, "User " + id, "u" + id + "@example.com", createdAt);
+    }
+}
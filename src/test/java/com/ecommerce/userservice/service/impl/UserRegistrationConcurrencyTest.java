@@ -0,0 +1,92 @@
+package com.ecommerce.userservice.service.impl;
+
+import com.ecommerce.userservice.config.ReadYourWrites;
+import com.ecommerce.userservice.dto.User.RegisterRequest;
+import com.ecommerce.userservice.event.EmailEventCodec;
+import com.ecommerce.userservice.event.EncodedEvent;
+import com.ecommerce.userservice.exception.BadRequestException;
+import com.ecommerce.userservice.model.Role;
+import com.ecommerce.userservice.repository.OutboxEventRepository;
+import com.ecommerce.userservice.repository.PasswordResetTokenRepository;
+import com.ecommerce.userservice.repository.RoleRepository;
+import com.ecommerce.userservice.repository.UserRepository;
+import com.ecommerce.userservice.service.RoleRegistry;
+import com.ecommerce.userservice.service.TokenRevocationService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest
+@TestPropertySource(properties = {"spring.flyway.enabled=false",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class UserRegistrationConcurrencyTest {
+
+    private static final int THREADS = 8;
+
+    @Autowired private UserRepository userRepository;
+    @Autowired private RoleRepository roleRepository;
+
+    @Test
+    void concurrentDuplicateSignups_onlyOneInserted() throws Exception {
+        Role role = new Role();
+        role.setName("ROLE_USER");
+        role = roleRepository.save(role);
+
+        RoleRegistry roleRegistry = mock(RoleRegistry.class);
+        when(roleRegistry.require("ROLE_USER")).thenReturn(role);
+        EmailEventCodec codec = mock(EmailEventCodec.class);
+        when(codec.encode(any())).thenReturn(new EncodedEvent("application/json", new byte[0]));
+        PasswordEncoder passwordEncoder = mock(PasswordEncoder.class);
+        when(passwordEncoder.encode(any())).thenReturn("hashed");
+
+        UserServiceImpl service = new UserServiceImpl(userRepository, passwordEncoder, roleRegistry,
+                mock(PasswordResetTokenRepository.class), codec, mock(OutboxEventRepository.class),
+                new ReadYourWrites(), new UserDetailsCache(null, new ReadYourWrites()),
+                mock(TokenRevocationService.class));
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> results = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            results.add(executor.submit(() -> {
+                start.await();
+                return service.register(new RegisterRequest("Race", "race@example.com", "pass"));
+            }));
+        }
+        start.countDown();
+
+        int succeeded = 0;
+        int rejected = 0;
+        for (Future<?> result : results) {
+            try {
+                result.get(30, TimeUnit.SECONDS);
+                succeeded++;
+            } catch (ExecutionException e) {
+                if (!(e.getCause() instanceof BadRequestException)) {
+                    throw e;
+                }
+                assertEquals("Email already exists", e.getCause().getMessage());
+                rejected++;
+            }
+        }
+        executor.shutdown();
+
+        assertEquals(1, succeeded);
+        assertEquals(THREADS - 1, rejected);
+        assertEquals(1, userRepository.findExistingEmails(List.of("race@example.com")).size());
+    }
+}
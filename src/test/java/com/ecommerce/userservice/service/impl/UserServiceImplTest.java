@@ -1,26 +1,36 @@
 package com.ecommerce.userservice.service.impl;
 
+import com.ecommerce.userservice.config.ReadYourWrites;
 import com.ecommerce.userservice.dto.User.RegisterRequest;
 import com.ecommerce.userservice.dto.User.UpdateProfileRequest;
 import com.ecommerce.userservice.dto.User.UserDTO;
 import com.ecommerce.userservice.exception.BadRequestException;
 import com.ecommerce.userservice.exception.ResourceNotFoundException;
+import com.ecommerce.userservice.model.OutboxEvent;
 import com.ecommerce.userservice.model.PasswordResetToken;
 import com.ecommerce.userservice.model.Role;
 import com.ecommerce.userservice.model.User;
+import com.ecommerce.userservice.repository.OutboxEventRepository;
 import com.ecommerce.userservice.repository.PasswordResetTokenRepository;
-import com.ecommerce.userservice.repository.RoleRepository;
 import com.ecommerce.userservice.repository.UserRepository;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ecommerce.userservice.service.RoleRegistry;
+import com.ecommerce.userservice.service.TokenRevocationService;
+import com.ecommerce.userservice.event.EmailEvent;
+import com.ecommerce.userservice.event.EmailEventCodec;
+import com.ecommerce.userservice.event.EncodedEvent;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.sql.SQLException;
 import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -32,40 +42,67 @@ class UserServiceImplTest {
 
     private  UserRepository userRepository;
     private  PasswordEncoder passwordEncoder;
-    private  RoleRepository roleRepository;
+    private  RoleRegistry roleRegistry;
     private  PasswordResetTokenRepository passwordResetTokenRepository;
-    private ObjectMapper objectMapper;
-    private KafkaTemplate<String, String> kafkaTemplate;
+    private EmailEventCodec emailEventCodec;
+    private OutboxEventRepository outboxEventRepository;
+
+    private UserDetailsCache userDetailsCache;
+    private TokenRevocationService tokenRevocationService;
 
     private UserServiceImpl service;
 
     @BeforeEach
     void setup() {
         userRepository = mock(UserRepository.class);
-        roleRepository = mock(RoleRepository.class);
+        roleRegistry = mock(RoleRegistry.class);
         passwordEncoder = mock(PasswordEncoder.class);
         passwordResetTokenRepository = mock(PasswordResetTokenRepository.class);
-        objectMapper = mock(ObjectMapper.class);
-        kafkaTemplate = mock(KafkaTemplate.class);
+        emailEventCodec = mock(EmailEventCodec.class);
+        outboxEventRepository = mock(OutboxEventRepository.class);
+        userDetailsCache = mock(UserDetailsCache.class);
+        tokenRevocationService = mock(TokenRevocationService.class);
+
+        service = new UserServiceImpl(userRepository, passwordEncoder, roleRegistry, passwordResetTokenRepository, emailEventCodec, outboxEventRepository,
+                new ReadYourWrites(), userDetailsCache, tokenRevocationService);
+        ReflectionTestUtils.setField(service, "batchMaxSize", 5);
+        ReflectionTestUtils.setField(service, "batchChunkSize", 2);
+    }
+
+    @Test
+    void findUsers_queriesPerChunkAndReturnsEachUserOnce() {
+        when(userRepository.findDtosByIds(List.of(1L, 2L))).thenReturn(List.of(new UserDTO(1L, "A", "a@a.com")));
+        when(userRepository.findDtosByIds(List.of(3L))).thenReturn(List.of(new UserDTO(3L, "C", "c@a.com")));
+        when(userRepository.findDtosByEmails(List.of("a@a.com"))).thenReturn(List.of(new UserDTO(1L, "A", "a@a.com")));
+
+        List<UserDTO> found = service.findUsers(List.of(1L, 2L, 1L, 3L), List.of("a@a.com"));
+
+        assertEquals(List.of(1L, 3L), found.stream().map(UserDTO::id).toList());
+        verify(userRepository, times(2)).findDtosByIds(any());
+        verify(userRepository, times(1)).findDtosByEmails(any());
+    }
 
-        service = new UserServiceImpl(userRepository, passwordEncoder, roleRepository, passwordResetTokenRepository, objectMapper, kafkaTemplate);
+    @Test
+    void findUsers_overMaxSize_throwsBeforeQuerying() {
+        assertThrows(BadRequestException.class,
+                () -> service.findUsers(List.of(1L, 2L, 3L), List.of("a@a.com", "b@a.com", "c@a.com")));
+        verifyNoInteractions(userRepository);
     }
 
     @Test
     void register_success() throws Exception {
-        when(userRepository.existsByEmail("a@a.com")).thenReturn(false);
-        when(roleRepository.findByName("ROLE_USER")).thenReturn(Optional.of(role("ROLE_USER")));
+        when(roleRegistry.require("ROLE_USER")).thenReturn(role("ROLE_USER"));
         when(passwordEncoder.encode("pass")).thenReturn("hashed");
 
-        when(objectMapper.writeValueAsString(any())).thenReturn("{\"dummy\":true}");
-        when(kafkaTemplate.send(eq("sendEmail"), anyString())).thenReturn(null);
+        byte[] payload = {1, 2, 3};
+        when(emailEventCodec.encode(any(EmailEvent.class))).thenReturn(new EncodedEvent("application/test", payload));
 
         User user = new User();
         user.setId(1L);
         user.setName("Arvind");
         user.setEmail("a@a.com");
         user.setPassword("hashed");
-        when(userRepository.save(any(User.class))).thenReturn(user);
+        when(userRepository.saveAndFlush(any(User.class))).thenReturn(user);
 
         UserDTO dto = service.register(new RegisterRequest("Arvind","a@a.com","pass"));
 
@@ -74,24 +111,34 @@ class UserServiceImplTest {
         assertEquals("a@a.com", dto.email());
 
         ArgumentCaptor<User> cap = ArgumentCaptor.forClass(User.class);
-        verify(userRepository).save(cap.capture());
+        verify(userRepository).saveAndFlush(cap.capture());
         assertEquals("hashed", cap.getValue().getPassword());
-
-        verify(kafkaTemplate).send(eq("sendEmail"), anyString());
+        verify(userRepository, never()).existsByEmail(any());
+
+        ArgumentCaptor<OutboxEvent> event = ArgumentCaptor.forClass(OutboxEvent.class);
+        verify(outboxEventRepository).save(event.capture());
+        assertEquals("sendEmail", event.getValue().getTopic());
+        assertEquals("a@a.com", event.getValue().getMessageKey());
+        assertEquals("application/test", event.getValue().getContentType());
+        assertArrayEquals(payload, event.getValue().getPayload());
+        assertNull(event.getValue().getSentAt());
     }
 
     @Test
     void register_duplicateEmail_throws() {
-        when(userRepository.existsByEmail("a@a.com")).thenReturn(true);
-        assertThrows(BadRequestException.class,
+        when(roleRegistry.require("ROLE_USER")).thenReturn(role("ROLE_USER"));
+        when(userRepository.saveAndFlush(any(User.class))).thenThrow(new DataIntegrityViolationException("duplicate",
+                new ConstraintViolationException("duplicate", new SQLException(), "users.uk_users_email")));
+
+        BadRequestException ex = assertThrows(BadRequestException.class,
                 () -> service.register(new RegisterRequest("A","a@a.com","p")));
-        verify(userRepository, never()).save(any());
+        assertEquals("Email already exists", ex.getMessage());
+        verifyNoInteractions(outboxEventRepository);
     }
 
     @Test
     void getProfileByEmail_found() {
-        when(userRepository.findByEmail("a@a.com"))
-                .thenReturn(Optional.of(User.builder().id(7L).name("A").email("a@a.com").build()));
+        when(userRepository.findDtoByEmail("a@a.com")).thenReturn(Optional.of(new UserDTO(7L, "A", "a@a.com")));
 
         UserDTO dto = service.getProfileByEmail("a@a.com");
         assertEquals(7L, dto.id());
@@ -100,37 +147,67 @@ class UserServiceImplTest {
 
     @Test
     void getProfileByEmail_missing_throws() {
-        when(userRepository.findByEmail("x@x.com")).thenReturn(Optional.empty());
+        when(userRepository.findDtoByEmail("x@x.com")).thenReturn(Optional.empty());
         assertThrows(ResourceNotFoundException.class, () -> service.getProfileByEmail("x@x.com"));
+        verify(userRepository, never()).findByEmail(any());
     }
 
     @Test
     void updateProfile_changesName() {
-        User u = User.builder().id(1L).email("a@a.com").name("Old").build();
-        when(userRepository.findByEmail("a@a.com")).thenReturn(Optional.of(u));
+        when(userRepository.updateName(eq("a@a.com"), eq("New Name"), any())).thenReturn(1);
+        when(userRepository.findDtoByEmail("a@a.com")).thenReturn(Optional.of(new UserDTO(1L, "New Name", "a@a.com")));
 
-        UserDTO dto = service.updateProfile("a@a.com", new UpdateProfileRequest("New Name"));
+        UserDTO dto = service.updateProfile("a@a.com", new UpdateProfileRequest(" New Name "));
 
         assertEquals("New Name", dto.name());
-        assertEquals("New Name", u.getName()); // in-entity changed
+        verify(userRepository, never()).findByEmail(any());
+    }
+
+    @Test
+    void deleteAccount_flagsRowEvictsCachedPrincipalAndCutsOffTokens() {
+        when(userRepository.softDeleteByEmail(eq("a@a.com"), any())).thenReturn(1);
+
+        service.deleteAccount("a@a.com");
+
+        ArgumentCaptor<Instant> deletedAt = ArgumentCaptor.forClass(Instant.class);
+        verify(userRepository).softDeleteByEmail(eq("a@a.com"), deletedAt.capture());
+        verify(tokenRevocationService).revokeAllFor("a@a.com", deletedAt.getValue());
+        verify(userDetailsCache).evict("a@a.com");
+        verify(userRepository, never()).delete(any());
+    }
+
+    @Test
+    void deleteAccount_missingOrAlreadyDeleted_throws() {
+        when(userRepository.softDeleteByEmail(eq("x@x.com"), any())).thenReturn(0);
+
+        assertThrows(ResourceNotFoundException.class, () -> service.deleteAccount("x@x.com"));
+        verify(userDetailsCache, never()).evict(any());
+        verifyNoInteractions(tokenRevocationService);
+    }
+
+    @Test
+    void updateProfile_missingUser_throws() {
+        when(userRepository.updateName(eq("x@x.com"), eq("New"), any())).thenReturn(0);
+
+        assertThrows(ResourceNotFoundException.class,
+                () -> service.updateProfile("x@x.com", new UpdateProfileRequest("New")));
     }
 
     @Test
     void changePassword_ok() {
-        User u = User.builder().id(1L).email("a@a.com").password("hashed-old").build();
-        when(userRepository.findByEmail("a@a.com")).thenReturn(Optional.of(u));
+        when(userRepository.findPasswordByEmail("a@a.com")).thenReturn(Optional.of("hashed-old"));
         when(passwordEncoder.matches("old", "hashed-old")).thenReturn(true);
         when(passwordEncoder.encode("new")).thenReturn("hashed-new");
 
         service.changePassword("a@a.com", "old", "new");
 
-        assertEquals("hashed-new", u.getPassword());
+        verify(userRepository).updatePassword(eq("a@a.com"), eq("hashed-new"), any());
+        verify(userDetailsCache).evict("a@a.com");
     }
 
     @Test
     void changePassword_wrongOld_throws() {
-        User u = User.builder().id(1L).email("a@a.com").password("hashed-old").build();
-        when(userRepository.findByEmail("a@a.com")).thenReturn(Optional.of(u));
+        when(userRepository.findPasswordByEmail("a@a.com")).thenReturn(Optional.of("hashed-old"));
         when(passwordEncoder.matches("bad", "hashed-old")).thenReturn(false);
 
         assertThrows(BadRequestException.class,
@@ -159,13 +236,11 @@ class UserServiceImplTest {
         PasswordResetToken prt = new PasswordResetToken(null, token, "a@a.com",
                 Instant.now().plusSeconds(1800));
         when(passwordResetTokenRepository.findByToken(token)).thenReturn(Optional.of(prt));
-        User u = User.builder().email("a@a.com").password("old").build();
-        when(userRepository.findByEmail("a@a.com")).thenReturn(Optional.of(u));
         when(passwordEncoder.encode("newpass")).thenReturn("hashed-new");
+        when(userRepository.updatePassword(eq("a@a.com"), eq("hashed-new"), any())).thenReturn(1);
 
         service.confirmPasswordReset(token, "newpass");
 
-        assertEquals("hashed-new", u.getPassword());
         verify(passwordResetTokenRepository).delete(prt);
     }
 